@@ -0,0 +1,78 @@
+package com.hosanna.hotelmanagement.benchmark;
+
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.User;
+import com.hosanna.hotelmanagement.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingService.isRoomAvailable against a growing booking history, answered by the
+ * in-memory index (index=true) or by the database overlap query (index=false, H2 here).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingAvailabilityBenchmark {
+
+    private static final int ROOMS = 100;
+
+    @Param({"1000", "100000"})
+    public int historySize;
+
+    @Param({"true", "false"})
+    public boolean index;
+
+    private EmbeddedApp app;
+    private BookingService bookingService;
+    private long[] roomIds;
+    private LocalDate tomorrow;
+    private int bookedDays;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = EmbeddedApp.start("booking.availability-index.enabled=" + index);
+        User user = app.seedUser("bench", "bench-password");
+        List<Room> rooms = app.seedRooms(ROOMS);
+        app.seedBookings(user, rooms, historySize);
+        app.reloadInMemoryState();
+
+        bookingService = app.bean(BookingService.class);
+        roomIds = rooms.stream().mapToLong(Room::getId).toArray();
+        tomorrow = LocalDate.now().plusDays(1);
+        bookedDays = 2 * (historySize / ROOMS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    // Random stays inside the booked period, so most probes hit a conflict somewhere in the history
+    @Benchmark
+    public boolean isRoomAvailable() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = tomorrow.plusDays(random.nextInt(bookedDays));
+        return bookingService.isRoomAvailable(roomIds[random.nextInt(roomIds.length)],
+                checkIn, checkIn.plusDays(1 + random.nextInt(7)), null);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hosanna.hotelmanagement.benchmark;
+
+import com.hosanna.hotelmanagement.dto.BookingBatchRequest;
+import com.hosanna.hotelmanagement.dto.BookingBatchResult;
+import com.hosanna.hotelmanagement.dto.BookingRequest;
+import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.User;
+import com.hosanna.hotelmanagement.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The in-JVM booking create path (locks, transaction, validation, insert, events) on the embedded
+ * database: one booking per call, and one 50-booking batch per call reported per booking.
+ * Every booking gets its own free night, so nothing is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingCreateBenchmark {
+
+    private static final int ROOMS = 200;
+    private static final int BATCH = 50;
+
+    private EmbeddedApp app;
+    private BookingService bookingService;
+    private long userId;
+    private long[] roomIds;
+    private LocalDate tomorrow;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = EmbeddedApp.start();
+        User user = app.seedUser("bench", "bench-password");
+        userId = user.getId();
+        roomIds = app.seedRooms(ROOMS).stream().mapToLong(Room::getId).toArray();
+        app.reloadInMemoryState();
+        bookingService = app.bean(BookingService.class);
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Booking createBooking() throws Exception {
+        return bookingService.createBooking(nextRequest());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BookingBatchResult createBatch() throws Exception {
+        List<BookingRequest> items = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            items.add(nextRequest());
+        }
+        return bookingService.createBookings(new BookingBatchRequest(BookingBatchRequest.Mode.ALL_OR_NOTHING, items));
+    }
+
+    // Walks the rooms round-robin, one night further every full round
+    private BookingRequest nextRequest() {
+        long n = sequence.getAndIncrement();
+        LocalDate checkIn = tomorrow.plusDays(n / ROOMS);
+        return new BookingRequest(userId, roomIds[(int) (n % ROOMS)], checkIn, checkIn.plusDays(1), null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.hosanna.hotelmanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hosanna.hotelmanagement.dto.BookingSummary;
+import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of booking lists as the controllers return them:
+ * full entities with nested user and room, and the fields=summary rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Booking> bookings;
+    private List<BookingSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        // Same date handling as the application's ObjectMapper
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        User user = new User("alice", "alice@example.com", "$2a$10$abcdefghijklmnopqrstuv", "USER");
+        user.setId(1L);
+        bookings = new ArrayList<>(size);
+        summaries = new ArrayList<>(size);
+        LocalDate start = LocalDate.now();
+        for (int i = 0; i < size; i++) {
+            Room room = new Room("R" + (i % 50), "Double", 120.0, false);
+            room.setId((long) (i % 50));
+            Booking booking = new Booking(user, room, start.plusDays(i), start.plusDays(i + 2), BookingStatus.BOOKED);
+            booking.setId((long) i);
+            bookings.add(booking);
+            summaries.add(new BookingSummary(booking.getId(), user.getId(), room.getId(),
+                    booking.getCheckInDate(), booking.getCheckOutDate(), booking.getStatus()));
+        }
+    }
+
+    @Benchmark
+    public byte[] fullBookings() throws Exception {
+        return mapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] summaries() throws Exception {
+        return mapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hosanna.hotelmanagement.benchmark;
+
+import com.hosanna.hotelmanagement.HotelManagementSystemApplication;
+import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.User;
+import com.hosanna.hotelmanagement.repository.BookingRepository;
+import com.hosanna.hotelmanagement.repository.RoomRepository;
+import com.hosanna.hotelmanagement.repository.UserRepository;
+import com.hosanna.hotelmanagement.service.BookingRollups;
+import com.hosanna.hotelmanagement.service.OccupancyEngine;
+import com.hosanna.hotelmanagement.service.RoomAvailabilityIndex;
+import com.hosanna.hotelmanagement.service.RoomCatalog;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * The whole application started in-process on an in-memory H2 database (PostgreSQL mode),
+ * for benchmarks that go through the real Spring beans. Seed data is written through the
+ * repositories; call reloadInMemoryState() afterwards so the indexes see it.
+ */
+final class EmbeddedApp implements AutoCloseable {
+
+    private static final int SEED_CHUNK = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final TransactionTemplate transactionTemplate;
+
+    private EmbeddedApp(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    /**
+     * Starts a fresh application with its own database, overrides are key=value properties
+     */
+    static EmbeddedApp start(String... overrides) {
+        // The JMH fork is not a devtools launch, keep the restarter out of the way
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                // The schema script and the SQL of the completion job, rollups, partitions and room-type inventory are PostgreSQL only
+                "--spring.sql.init.mode=never",
+                "--booking.completion.resume-on-startup=false",
+                "--reports.rollups.enabled=false",
+                "--booking.partitions.enabled=false",
+                "--inventory.enabled=false",
+                "--server.port=0",
+                "--logging.level.root=WARN"));
+        for (String override : overrides) {
+            args.add("--" + override);
+        }
+        return new EmbeddedApp(SpringApplication.run(HotelManagementSystemApplication.class, args.toArray(new String[0])));
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    User seedUser(String username, String password) {
+        String hash = bean(PasswordEncoder.class).encode(password);
+        return bean(UserRepository.class).save(new User(username, username + "@bench.local", hash, "USER"));
+    }
+
+    List<Room> seedRooms(int count) {
+        List<Room> rooms = IntStream.range(0, count)
+                .mapToObj(i -> new Room("B" + i, i % 3 == 0 ? "Suite" : "Double", 100.0 + i % 50, true))
+                .toList();
+        return bean(RoomRepository.class).saveAll(rooms);
+    }
+
+    /**
+     * count BOOKED two-night stays spread evenly over the rooms, back to back from tomorrow on
+     */
+    void seedBookings(User user, List<Room> rooms, int count) {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        BookingRepository bookingRepository = bean(BookingRepository.class);
+        for (int from = 0; from < count; from += SEED_CHUNK) {
+            int start = from;
+            int end = Math.min(count, from + SEED_CHUNK);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Booking> chunk = new ArrayList<>(end - start);
+                for (int n = start; n < end; n++) {
+                    LocalDate checkIn = tomorrow.plusDays(2L * (n / rooms.size()));
+                    chunk.add(new Booking(user, rooms.get(n % rooms.size()), checkIn, checkIn.plusDays(2), BookingStatus.BOOKED));
+                }
+                bookingRepository.saveAll(chunk);
+            });
+        }
+    }
+
+    // Seeding bypasses the booking events, rebuild everything that was loaded at startup
+    void reloadInMemoryState() {
+        bean(RoomAvailabilityIndex.class).load();
+        bean(RoomCatalog.class).load();
+        bean(OccupancyEngine.class).load();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hosanna.hotelmanagement.benchmark;
+
+import com.hosanna.hotelmanagement.config.JwtProperties;
+import com.hosanna.hotelmanagement.config.JwtUtil;
+import com.hosanna.hotelmanagement.config.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens per second for generation and validation. The legacy* methods do what JwtUtil did
+ * before the key and parser were cached (new key and parser per call, three parses per request).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "MySuperSecureRandomKeyForHS256ThatIsLongEnough1234";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new JwtProperties(SECRET, "primary", Map.of(), Duration.ofHours(10)));
+        token = jwtUtil.generateToken("alice", "USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("alice", "USER");
+    }
+
+    @Benchmark
+    public TokenClaims validateAndExtract() {
+        return jwtUtil.validateAndExtract(token);
+    }
+
+    @Benchmark
+    public String legacyGenerateToken() {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("role", "USER")
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+    }
+
+    // extractUsername, then validateToken's extractUsername + isTokenExpired
+    @Benchmark
+    public boolean legacyValidate() {
+        String username = legacyParse(token).getSubject();
+        return legacyParse(token).getSubject().equals(username) && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyParse(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
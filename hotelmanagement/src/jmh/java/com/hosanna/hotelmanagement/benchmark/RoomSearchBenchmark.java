@@ -0,0 +1,103 @@
+package com.hosanna.hotelmanagement.benchmark;
+
+import com.hosanna.hotelmanagement.event.RoomSnapshot;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.User;
+import com.hosanna.hotelmanagement.repository.BookingRepository;
+import com.hosanna.hotelmanagement.repository.RoomRepository;
+import com.hosanna.hotelmanagement.service.OccupancyEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-room search over 10k rooms: OccupancyEngine's night bitsets against the scans it replaced,
+ * the Room.available flag read from every room row (which only knows "booked at all", not the dates)
+ * and the per-room overlap query RoomService falls back to before the engine is loaded (H2 here).
+ * SampleTime so the JSON result carries p99 next to the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomSearchBenchmark {
+
+    // Five two-night stays per room, back to back over the next ten days
+    private static final int STAYS_PER_ROOM = 5;
+
+    @Param({"10000"})
+    public int roomCount;
+
+    private EmbeddedApp app;
+    private OccupancyEngine occupancyEngine;
+    private RoomRepository roomRepository;
+    private BookingRepository bookingRepository;
+    private LocalDate tomorrow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = EmbeddedApp.start();
+        User user = app.seedUser("bench", "bench-password");
+        List<Room> rooms = app.seedRooms(roomCount);
+        app.seedBookings(user, rooms, roomCount * STAYS_PER_ROOM);
+        app.reloadInMemoryState();
+
+        occupancyEngine = app.bean(OccupancyEngine.class);
+        roomRepository = app.bean(RoomRepository.class);
+        bookingRepository = app.bean(BookingRepository.class);
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<RoomSnapshot> occupancyEngine() {
+        LocalDate checkIn = randomCheckIn();
+        return occupancyEngine.findAvailableRooms(checkIn, checkIn.plusDays(3), "Suite", null);
+    }
+
+    @Benchmark
+    public List<RoomSnapshot> availableFlagScan() {
+        return roomRepository.findAll().stream()
+                .filter(room -> Boolean.TRUE.equals(room.getAvailable()))
+                .filter(room -> "Suite".equalsIgnoreCase(room.getType()))
+                .map(RoomSnapshot::of)
+                .toList();
+    }
+
+    @Benchmark
+    public List<RoomSnapshot> perRoomOverlapScan() {
+        LocalDate checkIn = randomCheckIn();
+        LocalDate checkOut = checkIn.plusDays(3);
+        return roomRepository.findAll().stream()
+                .filter(room -> "Suite".equalsIgnoreCase(room.getType()))
+                .filter(room -> !bookingRepository.existsOverlappingBooking(room.getId(), checkIn, checkOut, null))
+                .map(RoomSnapshot::of)
+                .toList();
+    }
+
+    // Half the probes land in the booked period, half after it
+    private LocalDate randomCheckIn() {
+        return tomorrow.plusDays(ThreadLocalRandom.current().nextInt(4 * STAYS_PER_ROOM));
+    }
+}
@@ -0,0 +1,133 @@
+package com.hosanna.hotelmanagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Many virtual users creating bookings on a handful of rooms over a short date window, so nearly
+ * every request races another one for the same nights. Afterwards every BOOKED stay of those rooms
+ * is read back and checked for overlaps; the run fails (exit code 1) on any double-booking.
+ *
+ * Run against several application instances behind one database to exercise the cross-instance path.
+ *
+ * Arguments (key=value): baseUrl, users, seconds, rooms (default 3), windowDays (default 30)
+ */
+public final class BookingContentionTest {
+
+    private BookingContentionTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        String baseUrl = options.get("baseUrl", "http://localhost:8080");
+        int users = options.getInt("users", 200);
+        int seconds = options.getInt("seconds", 30);
+        int roomCount = options.getInt("rooms", 3);
+        int windowDays = options.getInt("windowDays", 30);
+
+        ApiClient client = new ApiClient(baseUrl);
+        String username = options.get("username", "loadtest");
+        client.signIn(username, options.get("password", "loadtest-password"));
+        long userId = client.listAll("/api/users").stream()
+                .filter(user -> username.equals(user.get("username").asText()))
+                .findFirst()
+                .orElseThrow()
+                .get("id").asLong();
+        List<Long> roomIds = client.listAll("/api/rooms").stream()
+                .map(room -> room.get("id").asLong())
+                .limit(roomCount)
+                .toList();
+        if (roomIds.isEmpty()) {
+            throw new IllegalStateException("No rooms to book, create or seed some first");
+        }
+
+        LatencyStats create = new LatencyStats("create");
+        LongAdder accepted = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long started = System.nanoTime();
+
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                virtualUsers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        createBooking(client, create, accepted, userId, roomIds, windowDays);
+                    }
+                    return null;
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        int doubleBookings = 0;
+        for (Long roomId : roomIds) {
+            doubleBookings += countOverlaps(client.listAll("/api/bookings/room/" + roomId));
+        }
+
+        System.out.printf("%d virtual users on %d rooms for %.1f s against %s%n", users, roomIds.size(), elapsed, baseUrl);
+        System.out.println(LatencyStats.header());
+        System.out.println(create.summary(elapsed));
+        System.out.printf("accepted bookings: %d (%.1f/s), double-bookings: %d%n",
+                accepted.sum(), accepted.sum() / elapsed, doubleBookings);
+        if (doubleBookings > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void createBooking(ApiClient client, LatencyStats stats, LongAdder accepted,
+                                      long userId, List<Long> roomIds, int windowDays) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(windowDays));
+        Map<String, Object> body = Map.of(
+                "userId", userId,
+                "roomId", roomIds.get(random.nextInt(roomIds.size())),
+                "checkInDate", checkIn.toString(),
+                "checkOutDate", checkIn.plusDays(1 + random.nextInt(3)).toString());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.post("/api/bookings", body);
+            stats.record(System.nanoTime() - start, response.statusCode());
+            if (response.statusCode() / 100 == 2) {
+                accepted.increment();
+            }
+        } catch (Exception e) {
+            stats.recordFailure(System.nanoTime() - start);
+        }
+    }
+
+    // Stays sorted by check-in overlap exactly when one starts before the latest check-out seen so far
+    private static int countOverlaps(List<JsonNode> bookings) {
+        List<JsonNode> booked = new ArrayList<>();
+        for (JsonNode booking : bookings) {
+            if ("BOOKED".equals(booking.get("status").asText())) {
+                booked.add(booking);
+            }
+        }
+        booked.sort(Comparator.comparing(booking -> booking.get("checkInDate").asText()));
+
+        int overlaps = 0;
+        LocalDate latestCheckOut = LocalDate.MIN;
+        for (JsonNode booking : booked) {
+            LocalDate checkIn = LocalDate.parse(booking.get("checkInDate").asText());
+            LocalDate checkOut = LocalDate.parse(booking.get("checkOutDate").asText());
+            if (checkIn.isBefore(latestCheckOut)) {
+                overlaps++;
+                System.out.printf("double-booking: room %s booking %s from %s%n",
+                        booking.get("roomId").asText(), booking.get("id").asText(), checkIn);
+            }
+            if (checkOut.isAfter(latestCheckOut)) {
+                latestCheckOut = checkOut;
+            }
+        }
+        return overlaps;
+    }
+}
@@ -0,0 +1,199 @@
+package com.hosanna.hotelmanagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Closed-loop mixed workload against a running application: each virtual user sends one request,
+ * waits for the answer and immediately sends the next, picking the operation from the mix.
+ * Every virtual user has its own random stream derived from seed, so two runs with the same
+ * arguments send the same sequence of operations.
+ *
+ * Operations: login (a random seeded user{n}), search (free rooms for a stay), create (a booking),
+ * update (move one of this virtual user's bookings) and cancel (one of them). Update and cancel
+ * fall back to create while the virtual user has no booking yet.
+ *
+ * To compare execution modes, start the app once with spring.threads.virtual.enabled=false and once
+ * with true, run this against each with the same arguments and compare the two reports.
+ * Seed data with DataSeeder first (its db=h2 mode also serves as a PostgreSQL-free stand-in).
+ *
+ * Arguments (key=value): baseUrl, users, seconds, warmupSeconds (default 10, not reported),
+ * mix (default login:5,search:55,create:20,update:10,cancel:10), seed, seededUsers (user{n} accounts
+ * to log in as, default 0 = the load test user), password, label
+ */
+public final class BookingLoadTest {
+
+    private static final String DEFAULT_MIX = "login:5,search:55,create:20,update:10,cancel:10";
+
+    private BookingLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        String baseUrl = options.get("baseUrl", "http://localhost:8080");
+        int users = options.getInt("users", 100);
+        int seconds = options.getInt("seconds", 60);
+        int warmupSeconds = options.getInt("warmupSeconds", 10);
+        int seed = options.getInt("seed", 42);
+        int seededUsers = options.getInt("seededUsers", 0);
+        String password = options.get("password", "loadtest-password");
+        String label = options.get("label", "run");
+        Map<String, Integer> mix = parseMix(options.get("mix", DEFAULT_MIX));
+
+        ApiClient client = new ApiClient(baseUrl);
+        String username = options.get("username", "loadtest");
+        client.signIn(username, password);
+        long userId = client.listAll("/api/users").stream()
+                .filter(user -> username.equals(user.get("username").asText()))
+                .findFirst()
+                .orElseThrow()
+                .get("id").asLong();
+        List<Long> roomIds = client.listAll("/api/rooms").stream().map(room -> room.get("id").asLong()).toList();
+        if (roomIds.isEmpty()) {
+            throw new IllegalStateException("No rooms to book, create or seed some first");
+        }
+
+        Map<String, LatencyStats> stats = new LinkedHashMap<>();
+        mix.keySet().forEach(operation -> stats.put(operation, new LatencyStats(operation)));
+        // update and cancel turn into creates until a virtual user has a booking
+        stats.putIfAbsent("create", new LatencyStats("create"));
+        Workload workload = new Workload(client, stats, userId, roomIds, seededUsers, username, password);
+
+        long measureFrom = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long deadline = measureFrom + seconds * 1_000_000_000L;
+
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                SplittableRandom random = new SplittableRandom(seed * 1_000_003L + i);
+                virtualUsers.submit(() -> {
+                    List<Long> ownBookings = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        String operation = pick(mix, random);
+                        workload.run(operation, random, ownBookings, System.nanoTime() >= measureFrom);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        System.out.printf("%s: %d virtual users for %d s (+%d s warmup) against %s, mix %s, seed %d%n",
+                label, users, seconds, warmupSeconds, baseUrl, mix, seed);
+        System.out.println(LatencyStats.header());
+        for (LatencyStats operation : stats.values()) {
+            System.out.println(operation.summary(seconds));
+        }
+    }
+
+    // "login:5,search:55" -> weights in the given order
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":");
+            if (!Workload.OPERATIONS.contains(pair[0])) {
+                throw new IllegalArgumentException("Unknown operation " + pair[0] + ", expected one of " + Workload.OPERATIONS);
+            }
+            weights.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        return weights;
+    }
+
+    private static String pick(Map<String, Integer> mix, SplittableRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    /**
+     * The operations of the mix, shared by all virtual users
+     */
+    private record Workload(ApiClient client, Map<String, LatencyStats> stats, long userId, List<Long> roomIds,
+                            int seededUsers, String username, String password) {
+
+        static final List<String> OPERATIONS = List.of("login", "search", "create", "update", "cancel");
+
+        void run(String operation, SplittableRandom random, List<Long> ownBookings, boolean measured) {
+            if (("update".equals(operation) || "cancel".equals(operation)) && ownBookings.isEmpty()) {
+                operation = "create";
+            }
+            LatencyStats target = measured ? stats.get(operation) : null;
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = switch (operation) {
+                    case "login" -> login(random);
+                    case "search" -> search(random);
+                    case "create" -> create(random, ownBookings);
+                    case "update" -> update(random, ownBookings);
+                    default -> cancel(random, ownBookings);
+                };
+                if (target != null) {
+                    target.record(System.nanoTime() - start, response.statusCode());
+                }
+            } catch (Exception e) {
+                if (target != null) {
+                    target.recordFailure(System.nanoTime() - start);
+                }
+            }
+        }
+
+        private HttpResponse<String> login(SplittableRandom random) throws Exception {
+            String name = seededUsers > 0 ? "user" + random.nextInt(seededUsers) : username;
+            return client.post("/api/auth/login", Map.of("username", name, "password", password));
+        }
+
+        private HttpResponse<String> search(SplittableRandom random) throws Exception {
+            LocalDate checkIn = randomCheckIn(random);
+            return client.get("/api/rooms/available?checkIn=" + checkIn + "&checkOut=" + checkIn.plusDays(randomNights(random)));
+        }
+
+        private HttpResponse<String> create(SplittableRandom random, List<Long> ownBookings) throws Exception {
+            LocalDate checkIn = randomCheckIn(random);
+            Map<String, Object> body = Map.of(
+                    "userId", userId,
+                    "roomId", roomIds.get(random.nextInt(roomIds.size())),
+                    "checkInDate", checkIn.toString(),
+                    "checkOutDate", checkIn.plusDays(randomNights(random)).toString());
+            HttpResponse<String> response = client.post("/api/bookings", body);
+            if (response.statusCode() == 200) {
+                JsonNode booking = client.json(response);
+                ownBookings.add(booking.get("id").asLong());
+            }
+            return response;
+        }
+
+        private HttpResponse<String> update(SplittableRandom random, List<Long> ownBookings) throws Exception {
+            long id = ownBookings.get(random.nextInt(ownBookings.size()));
+            LocalDate checkIn = randomCheckIn(random);
+            return client.put("/api/bookings/" + id, Map.of(
+                    "checkInDate", checkIn.toString(),
+                    "checkOutDate", checkIn.plusDays(randomNights(random)).toString()));
+        }
+
+        private HttpResponse<String> cancel(SplittableRandom random, List<Long> ownBookings) throws Exception {
+            long id = ownBookings.remove(random.nextInt(ownBookings.size()));
+            return client.put("/api/bookings/" + id, Map.of("status", "CANCELLED"));
+        }
+
+        private static LocalDate randomCheckIn(SplittableRandom random) {
+            return LocalDate.now().plusDays(1 + random.nextInt(365));
+        }
+
+        private static int randomNights(SplittableRandom random) {
+            return 1 + random.nextInt(7);
+        }
+    }
+}
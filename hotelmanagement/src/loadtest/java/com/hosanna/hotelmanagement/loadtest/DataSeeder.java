@@ -0,0 +1,208 @@
+package com.hosanna.hotelmanagement.loadtest;
+
+import com.hosanna.hotelmanagement.HotelManagementSystemApplication;
+import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.User;
+import com.hosanna.hotelmanagement.repository.BookingRepository;
+import com.hosanna.hotelmanagement.repository.RoomRepository;
+import com.hosanna.hotelmanagement.repository.UserRepository;
+import com.hosanna.hotelmanagement.service.BookingPartitionManager;
+import com.hosanna.hotelmanagement.service.BookingRollups;
+import com.hosanna.hotelmanagement.service.OccupancyEngine;
+import com.hosanna.hotelmanagement.service.RoomAvailabilityIndex;
+import com.hosanna.hotelmanagement.service.RoomCatalog;
+import com.hosanna.hotelmanagement.service.RoomTypeInventory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the database with a reproducible synthetic hotel: rooms, users and a long booking history,
+ * written through the repositories in chunked transactions (JDBC batch inserts on pooled sequence ids).
+ * The same seed always produces the same data.
+ *
+ * db=postgres (default) seeds the database configured in application.properties and exits.
+ * db=h2 starts the application on an in-memory H2 stand-in, seeds it and keeps serving on
+ * port=8080 until stopped, so BookingLoadTest can run against it with no PostgreSQL at all.
+ *
+ * Every user is called user{n} with password=loadtest-password, for the login part of the workload.
+ *
+ * Arguments (key=value): db, rooms, users, bookings, seed, chunk, futureDays, password, port
+ */
+public final class DataSeeder {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final ConfigurableApplicationContext context;
+    private final TransactionTemplate transactionTemplate;
+    private final Random random;
+    private final int chunk;
+
+    private DataSeeder(ConfigurableApplicationContext context, long seed, int chunk) {
+        this.context = context;
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.random = new Random(seed);
+        this.chunk = chunk;
+    }
+
+    public static void main(String[] args) {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean standIn = "h2".equals(options.get("db", "postgres"));
+        int roomCount = options.getInt("rooms", 500);
+        int userCount = options.getInt("users", 1000);
+        int bookingCount = options.getInt("bookings", 1_000_000);
+        int futureDays = options.getInt("futureDays", 180);
+
+        ConfigurableApplicationContext context = start(standIn, options.get("port", "8080"));
+        DataSeeder seeder = new DataSeeder(context, options.getInt("seed", 42), options.getInt("chunk", 5000));
+
+        long started = System.nanoTime();
+        List<User> users = seeder.seedUsers(userCount, options.get("password", "loadtest-password"));
+        List<Room> rooms = seeder.seedRooms(roomCount);
+        long bookings = seeder.seedBookings(users, rooms, bookingCount, futureDays);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        System.out.printf("Seeded %d users, %d rooms and %d bookings in %.1f s (%.0f bookings/s)%n",
+                users.size(), rooms.size(), bookings, seconds, bookings / seconds);
+
+        if (standIn) {
+            // The writes above bypassed the booking events
+            context.getBean(RoomAvailabilityIndex.class).load();
+            context.getBean(RoomCatalog.class).load();
+            context.getBean(OccupancyEngine.class).load();
+            System.out.println("Serving the seeded stand-in on port " + options.get("port", "8080") + ", Ctrl+C to stop");
+        } else {
+            // Same for the reporting rollups and the room-type counters
+            context.getBean(BookingRollups.class).rebuild();
+            context.getBean(RoomTypeInventory.class).reconcile(true);
+            context.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean standIn, String port) {
+        List<String> args = new ArrayList<>(List.of("--spring.jpa.show-sql=false"));
+        if (standIn) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    // The schema script and the SQL of the completion job, rollups, partitions and room-type inventory are PostgreSQL only
+                    "--spring.sql.init.mode=never",
+                    "--booking.completion.resume-on-startup=false",
+                    "--reports.rollups.enabled=false",
+                    "--booking.partitions.enabled=false",
+                    "--inventory.enabled=false",
+                    "--server.port=" + port));
+        } else {
+            args.add("--spring.main.web-application-type=none");
+        }
+        return SpringApplication.run(HotelManagementSystemApplication.class, args.toArray(new String[0]));
+    }
+
+    // One bcrypt hash shared by everyone, hashing a million-user table one by one would take hours
+    private List<User> seedUsers(int count, String password) {
+        String hash = context.getBean(PasswordEncoder.class).encode(password);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>(count);
+        for (int from = 0; from < count; from += chunk) {
+            int start = from;
+            int end = Math.min(count, from + chunk);
+            users.addAll(transactionTemplate.execute(status -> {
+                List<User> batch = new ArrayList<>(end - start);
+                for (int n = start; n < end; n++) {
+                    batch.add(new User("user" + n, "user" + n + "@loadtest.local", hash, n == 0 ? "ADMIN" : "USER"));
+                }
+                return userRepository.saveAll(batch);
+            }));
+        }
+        return users;
+    }
+
+    // Half singles, a third doubles, the rest suites; prices vary a little within a type
+    private List<Room> seedRooms(int count) {
+        List<Room> rooms = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            double roll = random.nextDouble();
+            String type = roll < 0.5 ? "Single" : roll < 0.85 ? "Double" : "Suite";
+            double base = switch (type) {
+                case "Single" -> 80;
+                case "Double" -> 130;
+                default -> 320;
+            };
+            String number = (n / 100 + 1) + String.format("%02d", n % 100);
+            rooms.add(new Room(number, type, Math.round(base * (0.85 + random.nextDouble() * 0.3)) * 1.0, true));
+        }
+        return transactionTemplate.execute(status -> context.getBean(RoomRepository.class).saveAll(rooms));
+    }
+
+    /**
+     * Each room gets a back-to-back timeline of stays with short gaps, ending futureDays from now,
+     * so non-cancelled stays never overlap. Stays that are over are COMPLETED or CANCELLED,
+     * the rest BOOKED or CANCELLED. Rooms with a BOOKED stay are marked unavailable.
+     */
+    private long seedBookings(List<User> users, List<Room> rooms, int count, int futureDays) {
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        int perRoom = Math.max(1, count / rooms.size());
+        // Mean stay of about 3 nights plus a mean gap of about 1.5 nights
+        LocalDate firstCheckIn = TODAY.plusDays(futureDays - Math.round(perRoom * 4.5));
+        // Monthly partitions for the whole timeline, or the past stays would all end up in bookings_default
+        context.getBean(BookingPartitionManager.class).ensurePartitions(firstCheckIn, TODAY.plusDays(futureDays + 60));
+
+        long written = 0;
+        List<Booking> batch = new ArrayList<>(chunk);
+        for (Room room : rooms) {
+            LocalDate checkIn = firstCheckIn.plusDays(random.nextInt(5));
+            for (int i = 0; i < perRoom && written < count; i++, written++) {
+                LocalDate checkOut = checkIn.plusDays(stayNights());
+                BookingStatus status = statusFor(checkOut, room);
+                batch.add(new Booking(users.get(random.nextInt(users.size())), room, checkIn, checkOut, status));
+                if (batch.size() == chunk) {
+                    saveChunk(bookingRepository, batch);
+                }
+                checkIn = checkOut.plusDays(gapNights());
+            }
+        }
+        saveChunk(bookingRepository, batch);
+
+        List<Room> booked = rooms.stream().filter(room -> Boolean.FALSE.equals(room.getAvailable())).toList();
+        transactionTemplate.executeWithoutResult(status -> context.getBean(RoomRepository.class).saveAll(booked));
+        return written;
+    }
+
+    private void saveChunk(BookingRepository bookingRepository, List<Booking> batch) {
+        if (!batch.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.saveAll(batch));
+            batch.clear();
+        }
+    }
+
+    // Mostly short stays: 1-3 nights for two thirds, up to two weeks for the rest
+    private int stayNights() {
+        return random.nextDouble() < 0.66 ? 1 + random.nextInt(3) : 4 + random.nextInt(11);
+    }
+
+    private int gapNights() {
+        return random.nextInt(4);
+    }
+
+    private BookingStatus statusFor(LocalDate checkOut, Room room) {
+        boolean cancelled = random.nextDouble() < (checkOut.isBefore(TODAY) ? 0.12 : 0.15);
+        if (cancelled) {
+            return BookingStatus.CANCELLED;
+        }
+        if (checkOut.isBefore(TODAY)) {
+            return BookingStatus.COMPLETED;
+        }
+        room.setAvailable(false);
+        return BookingStatus.BOOKED;
+    }
+}
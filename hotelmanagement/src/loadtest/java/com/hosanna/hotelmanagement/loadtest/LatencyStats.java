@@ -0,0 +1,64 @@
+package com.hosanna.hotelmanagement.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and outcomes of one operation type, shared by all virtual users
+ */
+final class LatencyStats {
+
+    private final String operation;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long rejected;
+    private long errors;
+
+    LatencyStats(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * 2xx counts as success, 4xx as a rejection (e.g. room already taken), anything else as an error
+     */
+    synchronized void record(long nanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (status >= 400 && status < 500) {
+            rejected++;
+        } else if (status < 200 || status >= 300) {
+            errors++;
+        }
+    }
+
+    synchronized void recordFailure(long nanos) {
+        record(nanos, -1);
+    }
+
+    synchronized String summary(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return String.format("%-10s %9d %10.1f %9.2f %9.2f %9.2f %9.2f%% %8.2f%%",
+                operation, count, count / elapsedSeconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                ratio(rejected), ratio(errors));
+    }
+
+    static String header() {
+        return String.format("%-10s %9s %10s %9s %9s %9s %10s %9s",
+                "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "rejected", "errors");
+    }
+
+    private double ratio(long value) {
+        return count == 0 ? 0 : value * 100.0 / count;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
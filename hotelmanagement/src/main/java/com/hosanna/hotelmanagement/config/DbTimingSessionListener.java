@@ -0,0 +1,45 @@
+package com.hosanna.hotelmanagement.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time Hibernate spends waiting for a connection and executing statements to the
+ * db phase of the current request. Registered through hibernate.session.events.auto,
+ * which creates one instance per session.
+ */
+public class DbTimingSessionListener implements SessionEventListener {
+
+    private long acquisitionStarted;
+    private long executionStarted;
+    private long batchStarted;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        ServerTiming.add(ServerTiming.Phase.DB, System.nanoTime() - acquisitionStarted);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ServerTiming.add(ServerTiming.Phase.DB, System.nanoTime() - executionStarted);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ServerTiming.add(ServerTiming.Phase.DB, System.nanoTime() - batchStarted);
+    }
+}
@@ -0,0 +1,106 @@
+package com.hosanna.hotelmanagement.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Bounded cache of verified token claims keyed by the SHA-256 of the token,
+ * so a token's signature is checked once and not on every request.
+ * An entry never outlives the token it was parsed from.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, TokenClaims> cache;
+    private final Timer parseTimer;
+
+    public JwtClaimsCache(JwtUtil jwtUtil,
+                          MeterRegistry meterRegistry,
+                          @Value("${jwt.claims-cache.max-size:10000}") long maxSize,
+                          @Value("${jwt.claims-cache.ttl:PT10M}") Duration ttl) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(ttl))
+                .recordStats()
+                .build();
+        // Hit ratio: cache_gets_total{cache="jwt.claims"} by result
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.claims");
+        this.parseTimer = Timer.builder("auth.jwt.parse")
+                .description("Signature check and claims parsing on a claims cache miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the claims of a valid token, parsing and verifying it only on a cache miss.
+     * Throws the same JwtException subtypes as JwtUtil for invalid or expired tokens.
+     */
+    public TokenClaims verify(String token) {
+        String key = hash(token);
+        TokenClaims claims = cache.getIfPresent(key);
+        if (claims == null) {
+            Timer.Sample sample = Timer.start();
+            try {
+                claims = jwtUtil.validateAndExtract(token);
+            } finally {
+                sample.stop(parseTimer);
+            }
+            cache.put(key, claims);
+        }
+        if (claims.isExpired()) {
+            cache.invalidate(key);
+            throw new ExpiredJwtException(null, null, "JWT expired at " + claims.expiresAt());
+        }
+        return claims;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Keeps an entry for the configured ttl or until the token expires, whichever comes first
+    private static final class UntilTokenExpiry implements Expiry<String, TokenClaims> {
+
+        private final long maxNanos;
+
+        private UntilTokenExpiry(Duration ttl) {
+            this.maxNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), claims.expiresAt()).toNanos();
+            return Math.max(0, Math.min(maxNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
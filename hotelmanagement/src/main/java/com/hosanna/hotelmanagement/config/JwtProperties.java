@@ -0,0 +1,19 @@
+package com.hosanna.hotelmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * jwt.* settings. New tokens are signed with secret and carry keyId in their header;
+ * retiredKeys (key id -> secret) are still accepted for verification until their tokens expire.
+ */
+@ConfigurationProperties(prefix = "jwt")
+public record JwtProperties(
+        String secret,
+        @DefaultValue("primary") String keyId,
+        Map<String, String> retiredKeys,
+        @DefaultValue("10h") Duration expiration) {
+}
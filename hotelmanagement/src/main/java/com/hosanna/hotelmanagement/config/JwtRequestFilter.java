@@ -1,9 +1,14 @@
 package com.hosanna.hotelmanagement.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,12 +22,26 @@ import java.io.IOException;
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtRequestFilter.class);
+
     @Autowired
-    private JwtUtil jwtUtil;
+    private JwtClaimsCache jwtClaimsCache;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter expiredTokens;
+    private Counter invalidTokens;
+
+    @PostConstruct
+    void initMetrics() {
+        expiredTokens = Counter.builder("auth.jwt.rejected").tag("reason", "expired").register(meterRegistry);
+        invalidTokens = Counter.builder("auth.jwt.rejected").tag("reason", "invalid").register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -37,24 +56,27 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             return;
         }
 
+        long started = System.nanoTime();
         final String authHeader = request.getHeader("Authorization");
         String username = null;
-        String jwt = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // Signature and expiry are checked here, the claims are cached per token
+                username = jwtClaimsCache.verify(jwt).subject();
             } catch (io.jsonwebtoken.ExpiredJwtException e) {
-                // Token expired - log and continue without authentication
-                System.out.println("JWT Token has expired: " + e.getMessage());
+                // Token expired - reject with 401
+                log.debug("JWT Token has expired: {}", e.getMessage());
+                expiredTokens.increment();
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("{\"error\": \"Token expired. Please login again.\"}");
                 response.setContentType("application/json");
                 return;
             } catch (Exception e) {
-                // Invalid token - log and continue without authentication
-                System.out.println("JWT Token validation error: " + e.getMessage());
+                // Invalid token - reject with 401
+                log.debug("JWT Token validation error: {}", e.getMessage());
+                invalidTokens.increment();
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("{\"error\": \"Invalid token. Please login again.\"}");
                 response.setContentType("application/json");
@@ -66,7 +88,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             try {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-                if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+                if (username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -76,10 +98,11 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             } catch (Exception e) {
-                System.out.println("Error loading user details: " + e.getMessage());
+                log.warn("Error loading user details: {}", e.getMessage());
             }
         }
 
+        ServerTiming.add(ServerTiming.Phase.AUTH, System.nanoTime() - started);
         chain.doFilter(request, response);
     }
 }
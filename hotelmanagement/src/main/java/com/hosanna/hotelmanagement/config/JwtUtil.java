@@ -1,61 +1,108 @@
 package com.hosanna.hotelmanagement.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Stateless token engine: keys and the parser are built once and shared by all threads.
+ * Tokens are signed with the active key and name it in their kid header, verification picks
+ * the key by kid so secrets can be rotated without logging everybody out.
+ */
 @Component
 public class JwtUtil {
 
-    // Inject the secret from application.properties
-    @Value("${jwt.secret}")
-    private String secret;
+    private final String activeKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    private final long expirationMillis;
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
+    public JwtUtil(JwtProperties properties) {
+        this.activeKeyId = properties.keyId();
         // Ensure HS256 key is at least 256 bits
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        this.signingKey = hmacKey(properties.secret());
+        this.expirationMillis = properties.expiration().toMillis();
+
+        Map<String, Key> keys = new HashMap<>();
+        if (properties.retiredKeys() != null) {
+            properties.retiredKeys().forEach((keyId, secret) -> keys.put(keyId, hmacKey(secret)));
+        }
+        keys.put(activeKeyId, signingKey);
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
 
     // Generate JWT token
     public String generateToken(String username, String role) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
                 .setSubject(username)
                 .claim("role", role)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours
-                .signWith(getSigningKey())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMillis))
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies signature and expiry with a single parse and returns all claims.
+     * Throws ExpiredJwtException for expired tokens and another JwtException for any other invalid token.
+     */
+    public TokenClaims validateAndExtract(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return new TokenClaims(claims.getSubject(), (String) claims.get("role"), claims.getExpiration().toInstant());
+    }
+
     // Extract username
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        return validateAndExtract(token).subject();
     }
 
     // Extract role
     public String extractRole(String token) {
-        return (String) extractAllClaims(token).get("role");
+        return validateAndExtract(token).role();
     }
 
     // Validate token
     public boolean validateToken(String token, String username) {
-        return extractUsername(token).equals(username) && !isTokenExpired(token);
+        TokenClaims claims = validateAndExtract(token);
+        return claims.subject().equals(username) && !claims.isExpired();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Tokens issued before key ids were introduced have no kid and were signed with the active secret
+    private Key verificationKey(String keyId) {
+        if (keyId == null) {
+            return signingKey;
+        }
+        Key key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new JwtException("Unknown signing key id: " + keyId);
+        }
+        return key;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -0,0 +1,20 @@
+package com.hosanna.hotelmanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Password encoder shared by registration, login and user updates.
+ * Kept out of SecurityConfig so UserService can use it without a cycle through JwtRequestFilter.
+ */
+@Configuration
+public class PasswordConfig {
+
+    // Raising the strength rehashes each user's password on their next successful login
+    @Bean
+    public BCryptPasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+}
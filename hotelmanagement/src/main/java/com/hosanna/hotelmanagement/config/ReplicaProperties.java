@@ -0,0 +1,25 @@
+package com.hosanna.hotelmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * datasource.replicas.* settings. When enabled, @Transactional(readOnly = true) service methods read from
+ * the replicas whose lag is within maxLag (checked every lagCheckInterval), everything else uses the
+ * spring.datasource primary. A user who just wrote a booking reads from the primary for stickiness.
+ * Each node gets its own Hikari pool, configured like spring.datasource.hikari unless overridden.
+ */
+@ConfigurationProperties(prefix = "datasource.replicas")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        List<Node> nodes,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("2s") Duration lagCheckInterval,
+        @DefaultValue("10s") Duration stickiness) {
+
+    public record Node(String name, String url, String username, String password, Integer maximumPoolSize) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.hosanna.hotelmanagement.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lets @Transactional(readOnly = true) service methods read from a replica. Repository methods are
+ * read-only transactions too, but called on their own (the in-memory indexes re-reading rows right
+ * after a commit, for instance) they must see the primary.
+ */
+@Aspect
+public class ReplicaReadAspect {
+
+    @Around("@annotation(transactional) && within(com.hosanna.hotelmanagement.service..*)")
+    public Object allowReplicas(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+        return ReplicaRoutingDataSource.allowingReplicas(joinPoint::proceed);
+    }
+}
@@ -0,0 +1,82 @@
+package com.hosanna.hotelmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces Boot's single pool with a primary pool plus one pool per replica (datasource.replicas.*).
+ * The application DataSource is a LazyConnectionDataSourceProxy: the physical connection is only taken
+ * at the first statement, once the transaction has marked it read-only, and read-only connections are
+ * handed to ReplicaRoutingDataSource. Pools are named after their route in the Hikari metrics.
+ *
+ * Off by default. To try it locally, run a second PostgreSQL (a standby, or just another instance with
+ * the same schema) and set datasource.replicas.enabled=true and datasource.replicas.nodes[0].url.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties replicaProperties,
+                                                             Environment environment,
+                                                             MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurePool(primary, ReplicaRoutingDataSource.PRIMARY, environment, meterRegistry);
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Node> nodes = replicaProperties.nodes() != null ? replicaProperties.nodes() : List.of();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaProperties.Node node = nodes.get(i);
+            String name = node.name() != null ? node.name() : "replica-" + (i + 1);
+            HikariDataSource replica = new HikariDataSource();
+            configurePool(replica, name, environment, meterRegistry);
+            replica.setJdbcUrl(node.url());
+            replica.setUsername(node.username() != null ? node.username() : primary.getUsername());
+            replica.setPassword(node.password() != null ? node.password() : primary.getPassword());
+            if (node.maximumPoolSize() != null) {
+                replica.setMaximumPoolSize(node.maximumPoolSize());
+            }
+            replica.setReadOnly(true);
+            replicas.put(name, replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.primary());
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+
+    // Same pool settings as Boot would apply (spring.datasource.hikari.*), named after the route
+    private static void configurePool(HikariDataSource pool, String name, Environment environment, MeterRegistry meterRegistry) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+}
@@ -0,0 +1,197 @@
+package com.hosanna.hotelmanagement.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the pool for a read-only connection: a replica within the lag limit (round robin), or the
+ * primary when replicas are not allowed for the current call (see ReplicaReadAspect), none is healthy,
+ * or the current user wrote a booking within the stickiness window (read-your-writes).
+ * Read-write connections never get here, LazyConnectionDataSourceProxy sends them to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Whether a standby is attached to its upstream and, if so, seconds since the last replayed transaction
+    // (0 when it has replayed everything it received, an idle primary writes nothing). A standby without a
+    // running WAL receiver has replayed all it got as well, so its lag alone would read 0 while it falls behind.
+    // Without pg_read_all_stats the receiver's status reads NULL, its row still shows that it is running.
+    private static final String LAG_QUERY = """
+            SELECT
+                NOT pg_is_in_recovery() OR EXISTS (
+                    SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming') AS receiving,
+                CASE
+                    WHEN NOT pg_is_in_recovery() THEN 0
+                    WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                    ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                END AS lag
+            """;
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile double lagSeconds = Double.NaN;
+        volatile boolean healthy;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private static final ThreadLocal<Boolean> replicasAllowed = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final double maxLagSeconds;
+    private final Cache<String, Boolean> recentWriters;
+    private final MeterRegistry meterRegistry;
+
+    ReplicaRoutingDataSource(HikariDataSource primary, Map<String, HikariDataSource> replicaPools,
+                             ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagSeconds = properties.maxLag().toMillis() / 1000.0;
+        this.meterRegistry = meterRegistry;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.stickiness())
+                .maximumSize(100_000)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaPools.forEach((name, pool) -> {
+            Replica replica = new Replica(name, pool);
+            replicas.add(replica);
+            targets.put(name, pool);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag of the replica in seconds, NaN when unreachable")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Runs work with replica reads allowed for the read-only transactions it starts
+     */
+    static <T> T allowingReplicas(ThrowingSupplier<T> work) throws Throwable {
+        Boolean previous = replicasAllowed.get();
+        replicasAllowed.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                replicasAllowed.remove();
+            } else {
+                replicasAllowed.set(previous);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ThrowingSupplier<T> {
+        T get() throws Throwable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String route = route();
+        meterRegistry.counter("datasource.routing", "route", route).increment();
+        return route;
+    }
+
+    private String route() {
+        if (!Boolean.TRUE.equals(replicasAllowed.get()) || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    // The writer's next reads go to the primary until the replicas have surely caught up
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        String user = currentUser();
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval:2s}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                boolean receiving = rs.getBoolean("receiving");
+                replica.lagSeconds = rs.getDouble("lag");
+                boolean healthy = receiving && replica.lagSeconds <= maxLagSeconds;
+                if (healthy != replica.healthy) {
+                    if (!receiving) {
+                        log.warn("Replica {} out of rotation: no WAL receiver, it lost its upstream", replica.name);
+                    } else {
+                        log.info("Replica {} {} (lag {} s)", replica.name, healthy ? "in rotation" : "out of rotation", replica.lagSeconds);
+                    }
+                }
+                replica.healthy = healthy;
+            } catch (Exception e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} out of rotation: {}", replica.name, e.getMessage());
+                }
+                replica.lagSeconds = Double.NaN;
+                replica.healthy = false;
+            }
+        }
+    }
+
+    HikariDataSource primary() {
+        return primary;
+    }
+
+    void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hosanna.hotelmanagement.config;
+
+import java.util.Locale;
+
+/**
+ * Per-request latency breakdown written to the Server-Timing response header by ServerTimingFilter.
+ * A request is served by one thread, so the phases are collected in a thread local; code running
+ * outside a request (scheduled jobs, startup) adds to nothing.
+ */
+public final class ServerTiming {
+
+    public enum Phase {
+        AUTH("auth"),
+        DB("db"),
+        SERIALIZATION("ser");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long started = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+
+    private ServerTiming() {
+    }
+
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Adds time spent in a phase to the current request, if there is one
+     */
+    public static void add(Phase phase, long elapsedNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += elapsedNanos;
+        }
+    }
+
+    // e.g. auth;dur=0.42, db;dur=3.10, ser;dur=0.80, app;dur=1.20, total;dur=5.52 (milliseconds)
+    String header() {
+        long total = System.nanoTime() - started;
+        long app = total;
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            app -= nanos[phase.ordinal()];
+            append(header, phase.metric, nanos[phase.ordinal()]);
+        }
+        append(header, "app", Math.max(0, app));
+        append(header, "total", total);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String metric, long elapsedNanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(metric).append(";dur=").append(String.format(Locale.ROOT, "%.2f", elapsedNanos / 1_000_000.0));
+    }
+}
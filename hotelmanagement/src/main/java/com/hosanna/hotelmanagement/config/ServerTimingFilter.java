@@ -0,0 +1,51 @@
+package com.hosanna.hotelmanagement.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+
+/**
+ * Adds a Server-Timing header (auth, db, ser, app, total) to every response.
+ * Runs outside the security chain so auth is included. The body is buffered until the
+ * request is done, otherwise the header would come after the response was committed,
+ * which is why streamed exports are left out.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final PathPattern EXPORT = PathPatternParser.defaultInstance.parse("/api/bookings/export");
+
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return EXPORT.matches(PathContainer.parsePath(pathHelper.getPathWithinApplication(request)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            ServerTiming.end();
+            wrapper.setHeader("Server-Timing", timing.header());
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
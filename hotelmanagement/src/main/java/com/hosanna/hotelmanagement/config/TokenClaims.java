@@ -0,0 +1,13 @@
+package com.hosanna.hotelmanagement.config;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature has already been verified
+ */
+public record TokenClaims(String subject, String role, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+}
@@ -1,13 +1,32 @@
 package com.hosanna.hotelmanagement.controller;
 
+import com.hosanna.hotelmanagement.dto.BookingBatchRequest;
+import com.hosanna.hotelmanagement.dto.BookingBatchResult;
 import com.hosanna.hotelmanagement.dto.BookingRequest;
+import com.hosanna.hotelmanagement.dto.BookingSummary;
 import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.dto.ResourceVersion;
+import com.hosanna.hotelmanagement.service.BookingETags;
+import com.hosanna.hotelmanagement.service.BookingExportService;
+import com.hosanna.hotelmanagement.service.BookingHistoryService;
 import com.hosanna.hotelmanagement.service.BookingService;
+import com.hosanna.hotelmanagement.service.IdempotencyService;
+import com.hosanna.hotelmanagement.service.RoomAllocator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -17,42 +36,194 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private BookingHistoryService bookingHistoryService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BookingETags bookingETags;
+
+    @Autowired
+    private RoomAllocator roomAllocator;
+
     // Create booking - FIXED to use DTO pattern
+    // roomType instead of roomId books any room of the type, the room is assigned at check-in
+    // With an Idempotency-Key header a retry returns the first response instead of booking again
     @PostMapping
-    public ResponseEntity<?> createBooking(@RequestBody BookingRequest bookingRequest) {
+    public ResponseEntity<?> createBooking(@RequestBody BookingRequest bookingRequest,
+                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                           Principal principal) {
+        if (idempotencyKey == null) {
+            return create(bookingRequest).response();
+        }
+        return idempotencyService.execute(ownerOf(principal), idempotencyKey, "POST /api/bookings", bookingRequest,
+                () -> create(bookingRequest), this::written);
+    }
+
+    private IdempotencyService.Outcome create(BookingRequest bookingRequest) {
         try {
             Booking booking = bookingService.createBooking(bookingRequest);
-            return ResponseEntity.ok(booking);
+            return IdempotencyService.Outcome.of(ResponseEntity.ok(booking));
+        } catch (Exception e) {
+            return new IdempotencyService.Outcome(ResponseEntity.badRequest().body(e.getMessage()), BookingService.isRetryable(e));
+        }
+    }
+
+    // Check a guest in; a booking made by room type gets its room assigned now
+    @PostMapping("/{id}/check-in")
+    public ResponseEntity<?> checkIn(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(roomAllocator.checkIn(id));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    // Get all bookings
+    // Create a block of bookings (mode ALL_OR_NOTHING or PARTIAL), the result lists every item in request order
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBookings(@RequestBody BookingBatchRequest batchRequest) {
+        try {
+            BookingBatchResult result = bookingService.createBookings(batchRequest);
+            if (result.created() == 0) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Get all bookings - with limit, cursor or fields a keyset page is returned instead of the whole table
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        return ResponseEntity.ok(bookingService.getAllBookings());
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) String fields) {
+        if (limit == null && cursor == null && fields == null) {
+            return ResponseEntity.ok(bookingService.getAllBookings());
+        }
+        return bookingPage(null, null, limit, cursor, fields);
+    }
+
+    // Bookings checking in today or later that were not cancelled, as BookingSummary rows
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<BookingSummary>> getUpcomingBookings() {
+        return ResponseEntity.ok(bookingService.getUpcomingBookings());
     }
 
-    // Get booking by ID
+    // Booked stays that cover today (guests in house), as BookingSummary rows
+    @GetMapping("/active")
+    public ResponseEntity<List<BookingSummary>> getActiveBookings() {
+        return ResponseEntity.ok(bookingService.getActiveBookings());
+    }
+
+    // Bulk export streamed as NDJSON (default) or CSV, e.g. /api/bookings/export?format=csv&from=2025-01-01&to=2025-12-31&gzip=true
+    // from/to filter on the check-in date, status and roomId are optional too
+    @GetMapping("/export")
+    public ResponseEntity<?> exportBookings(@RequestParam(defaultValue = "ndjson") String format,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(required = false) String status,
+                                            @RequestParam(required = false) Long roomId,
+                                            @RequestParam(defaultValue = "false") boolean gzip) {
+        BookingExportService.Format exportFormat;
+        try {
+            exportFormat = BookingExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown export format: " + format);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("from must not be after to");
+        }
+        BookingStatus statusFilter;
+        try {
+            statusFilter = BookingStatus.parse(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                bookingExportService.export(from, to, statusFilter, roomId, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                bookingExportService.export(from, to, statusFilter, roomId, exportFormat, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings." + exportFormat.extension() + (gzip ? ".gz" : "") + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // Booking history including archived months, as keyset pages of BookingSummary rows,
+    // e.g. /api/bookings/history?userId=7&limit=100 (userId and roomId are optional)
+    @GetMapping("/history")
+    public ResponseEntity<?> getBookingHistory(@RequestParam(required = false) Long userId,
+                                               @RequestParam(required = false) Long roomId,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String cursor) {
+        return PageResponses.page(limit, cursor,
+                (afterId, pageSize) -> bookingHistoryService.getHistoryPage(userId, roomId, afterId, pageSize));
+    }
+
+    // Get booking by ID - a client holding the current version gets 304 after a version lookup, without the booking being loaded
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBookingById(@PathVariable Long id) {
+    public ResponseEntity<?> getBookingById(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<ResourceVersion> current = bookingETags.current(id);
+            if (current.isPresent() && current.get().matches(ifNoneMatch)) {
+                return ConditionalResponses.notModified(current.get());
+            }
+        }
         return bookingService.getBookingById(id)
-                .map(ResponseEntity::ok)
+                .<ResponseEntity<?>>map(booking -> ConditionalResponses.ok(bookingETags.of(booking)).body(booking))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Update booking - FIXED
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateBooking(@PathVariable Long id, @RequestBody BookingRequest bookingRequest) {
+    public ResponseEntity<?> updateBooking(@PathVariable Long id, @RequestBody BookingRequest bookingRequest,
+                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                           Principal principal) {
+        if (idempotencyKey == null) {
+            return update(id, bookingRequest).response();
+        }
+        return idempotencyService.execute(ownerOf(principal), idempotencyKey, "PUT /api/bookings/" + id, bookingRequest,
+                () -> update(id, bookingRequest), this::written);
+    }
+
+    private IdempotencyService.Outcome update(Long id, BookingRequest bookingRequest) {
         try {
             Booking updated = bookingService.updateBooking(id, bookingRequest);
-            return ResponseEntity.ok(updated);
+            return IdempotencyService.Outcome.of(ResponseEntity.ok(updated));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return new IdempotencyService.Outcome(ResponseEntity.badRequest().body(e.getMessage()), BookingService.isRetryable(e));
         }
     }
 
+    // A keyed write committed but its response was lost (crash, timeout): answer with the booking as it is now
+    private IdempotencyService.Outcome written(Long bookingId) {
+        return IdempotencyService.Outcome.of(bookingService.getBookingById(bookingId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().body("Booking not found with id " + bookingId)));
+    }
+
+    // Idempotency keys are per user, two users may pick the same key
+    private static String ownerOf(Principal principal) {
+        return principal != null ? principal.getName() : "anonymous";
+    }
+
     // Delete booking
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteBooking(@PathVariable Long id) {
@@ -66,13 +237,32 @@ public class BookingController {
 
     // Get bookings by user ID
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Booking>> getBookingsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(bookingService.getBookingsByUserId(userId));
+    public ResponseEntity<?> getBookingsByUserId(@PathVariable Long userId,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) String fields) {
+        if (limit == null && cursor == null && fields == null) {
+            return ResponseEntity.ok(bookingService.getBookingsByUserId(userId));
+        }
+        return bookingPage(userId, null, limit, cursor, fields);
     }
 
     // Get bookings by room ID
     @GetMapping("/room/{roomId}")
-    public ResponseEntity<List<Booking>> getBookingsByRoomId(@PathVariable Long roomId) {
-        return ResponseEntity.ok(bookingService.getBookingsByRoomId(roomId));
+    public ResponseEntity<?> getBookingsByRoomId(@PathVariable Long roomId,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) String fields) {
+        if (limit == null && cursor == null && fields == null) {
+            return ResponseEntity.ok(bookingService.getBookingsByRoomId(roomId));
+        }
+        return bookingPage(null, roomId, limit, cursor, fields);
+    }
+
+    // fields=full (default) returns bookings with user and room, fields=summary returns BookingSummary rows
+    private ResponseEntity<?> bookingPage(Long userId, Long roomId, Integer limit, String cursor, String fields) {
+        return PageResponses.page(limit, cursor, fields,
+                (afterId, pageSize) -> bookingService.getBookingPage(userId, roomId, afterId, pageSize),
+                (afterId, pageSize) -> bookingService.getBookingSummaryPage(userId, roomId, afterId, pageSize));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package com.hosanna.hotelmanagement.controller;
+
+import com.hosanna.hotelmanagement.dto.ResourceVersion;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETag / Last-Modified headers for conditional GETs. Spring compares them with If-None-Match and
+ * If-Modified-Since when the ResponseEntity is returned and sends 304 without serializing the body.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static ResponseEntity.BodyBuilder ok(ResourceVersion version) {
+        return withValidators(ResponseEntity.ok(), version);
+    }
+
+    // For callers that already know the client's copy is current, before loading anything
+    static ResponseEntity<?> notModified(ResourceVersion version) {
+        return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, ResourceVersion version) {
+        builder.eTag(version.eTag());
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+}
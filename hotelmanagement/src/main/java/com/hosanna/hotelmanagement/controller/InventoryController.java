@@ -0,0 +1,68 @@
+package com.hosanna.hotelmanagement.controller;
+
+import com.hosanna.hotelmanagement.service.RoomAllocator;
+import com.hosanna.hotelmanagement.service.RoomTypeInventory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/inventory")
+@CrossOrigin(origins = "*")
+public class InventoryController {
+
+    private final RoomTypeInventory roomTypeInventory;
+    private final RoomAllocator roomAllocator;
+    private final long maxStayNights;
+
+    public InventoryController(RoomTypeInventory roomTypeInventory,
+                               RoomAllocator roomAllocator,
+                               @Value("${inventory.max-stay-nights:366}") long maxStayNights) {
+        this.roomTypeInventory = roomTypeInventory;
+        this.roomAllocator = roomAllocator;
+        this.maxStayNights = maxStayNights;
+    }
+
+    // Rooms of a type free for a whole stay, e.g. /api/inventory/availability?type=Suite&checkIn=2025-07-01&checkOut=2025-07-05
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailability(@RequestParam String type,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        if (!roomTypeInventory.isEnabled()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Room-type inventory is not enabled"));
+        }
+        if (!checkIn.isBefore(checkOut)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Check-in date must be before check-out date"));
+        }
+        if (ChronoUnit.DAYS.between(checkIn, checkOut) > maxStayNights) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A stay is limited to " + maxStayNights + " nights"));
+        }
+        Optional<String> roomType = roomTypeInventory.resolveType(type);
+        if (roomType.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No rooms of type " + type));
+        }
+        return ResponseEntity.ok(roomTypeInventory.getAvailability(roomType.get(), checkIn, checkOut));
+    }
+
+    // Checks the counters against the bookings, repair=true overwrites drifted ones (admin only, see SecurityConfig)
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcile(@RequestParam(defaultValue = "false") boolean repair) {
+        if (!roomTypeInventory.isEnabled()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Room-type inventory is not enabled"));
+        }
+        return ResponseEntity.ok(roomTypeInventory.reconcile(repair));
+    }
+
+    // Assigns rooms to the room-type bookings arriving by date, today by default (admin only)
+    @PostMapping("/allocate")
+    public ResponseEntity<?> allocate(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        int assigned = roomAllocator.allocate(date != null ? date : LocalDate.now());
+        return ResponseEntity.ok(Map.of("assigned", assigned));
+    }
+}
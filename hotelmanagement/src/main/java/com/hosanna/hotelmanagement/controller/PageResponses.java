@@ -0,0 +1,54 @@
+package com.hosanna.hotelmanagement.controller;
+
+import com.hosanna.hotelmanagement.dto.PageResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keyset pages of the list endpoints (limit, cursor, fields=full|summary). A bad cursor, limit or fields
+ * value is answered the same way on every endpoint: 400 with {"error": "..."}.
+ */
+final class PageResponses {
+
+    /**
+     * Loads one page starting after afterId
+     */
+    @FunctionalInterface
+    interface PageLoader {
+        PageResponse<?> load(long afterId, int limit);
+    }
+
+    private PageResponses() {
+    }
+
+    static ResponseEntity<?> page(Integer limit, String cursor, String fields, PageLoader full, PageLoader summary) {
+        try {
+            long afterId = PageResponse.decodeCursor(cursor);
+            int pageSize = PageResponse.clampLimit(limit);
+            if ("summary".equals(fields)) {
+                return ResponseEntity.ok(summary.load(afterId, pageSize));
+            }
+            if (fields == null || "full".equals(fields)) {
+                return ResponseEntity.ok(full.load(afterId, pageSize));
+            }
+            return badRequest("Unknown fields value: " + fields);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    // For list endpoints with a single representation (fields is not offered)
+    static ResponseEntity<?> page(Integer limit, String cursor, PageLoader loader) {
+        try {
+            return ResponseEntity.ok(loader.load(PageResponse.decodeCursor(cursor), PageResponse.clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    static ResponseEntity<Map<String, String>> badRequest(String message) {
+        return ResponseEntity.badRequest().body(Map.of("error", Objects.requireNonNullElse(message, "Bad request")));
+    }
+}
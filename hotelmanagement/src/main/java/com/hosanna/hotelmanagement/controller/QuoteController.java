@@ -0,0 +1,30 @@
+package com.hosanna.hotelmanagement.controller;
+
+import com.hosanna.hotelmanagement.dto.QuoteRequest;
+import com.hosanna.hotelmanagement.service.RateService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/quotes")
+@CrossOrigin(origins = "*")
+public class QuoteController {
+
+    private final RateService rateService;
+
+    public QuoteController(RateService rateService) {
+        this.rateService = rateService;
+    }
+
+    // Prices many stays (room or room type x dates) in one call; items that cannot be priced are reported per item
+    @PostMapping
+    public ResponseEntity<?> quote(@RequestBody QuoteRequest request) {
+        try {
+            return ResponseEntity.ok(rateService.quote(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
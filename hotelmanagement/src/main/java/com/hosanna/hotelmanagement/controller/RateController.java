@@ -0,0 +1,44 @@
+package com.hosanna.hotelmanagement.controller;
+
+import com.hosanna.hotelmanagement.dto.RateUpdateRequest;
+import com.hosanna.hotelmanagement.service.RateService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rates")
+@CrossOrigin(origins = "*")
+public class RateController {
+
+    private final RateService rateService;
+
+    public RateController(RateService rateService) {
+        this.rateService = rateService;
+    }
+
+    // Nightly rates of a room type, e.g. /api/rates?type=Suite&from=2025-12-20&to=2026-01-05
+    @GetMapping
+    public ResponseEntity<?> getRates(@RequestParam String type,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(rateService.getRates(type, from, to));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Bulk rate update (admin only, see SecurityConfig); quotes keep being served from the previous rates until it commits
+    @PutMapping
+    public ResponseEntity<?> updateRates(@RequestBody RateUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(Map.of("nightsUpdated", rateService.updateRates(request)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.hosanna.hotelmanagement.controller;
+
+import com.hosanna.hotelmanagement.service.ReportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private final ReportService reportService;
+    private final long maxRangeDays;
+
+    public ReportController(ReportService reportService,
+                            @Value("${reports.max-range-days:1096}") long maxRangeDays) {
+        this.reportService = reportService;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // Occupancy per night, e.g. /api/reports/occupancy?from=2025-06-01&to=2025-06-30&type=Suite
+    @GetMapping("/occupancy")
+    public ResponseEntity<?> getOccupancy(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(required = false) String type) {
+        String error = validateRange(from, to);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        return ResponseEntity.ok(reportService.getOccupancy(from, to, type));
+    }
+
+    // Revenue, ADR and RevPAR per room type over the nights from..to
+    @GetMapping("/revenue")
+    public ResponseEntity<?> getRevenue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                        @RequestParam(required = false) String type) {
+        String error = validateRange(from, to);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        return ResponseEntity.ok(reportService.getRevenue(from, to, type));
+    }
+
+    // Full rebuild of the rollups from the bookings table (admin only, see SecurityConfig)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups() {
+        reportService.rebuildRollups();
+        return ResponseEntity.ok(Map.of("message", "Rollups rebuilt"));
+    }
+
+    private String validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return "from must not be after to";
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            return "Range is limited to " + maxRangeDays + " days";
+        }
+        return null;
+    }
+}
@@ -1,10 +1,13 @@
 package com.hosanna.hotelmanagement.controller;
 
+import com.hosanna.hotelmanagement.event.RoomSnapshot;
 import com.hosanna.hotelmanagement.model.Room;
 import com.hosanna.hotelmanagement.service.RoomService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -28,17 +31,37 @@ public class RoomController {
         }
     }
 
-    // Get all rooms
+    // Get all rooms - with limit, cursor or fields a keyset page is returned instead
+    // (fields=summary leaves out the available flag)
     @GetMapping
-    public ResponseEntity<List<Room>> getAllRooms() {
-        return ResponseEntity.ok(roomService.getAllRooms());
+    public ResponseEntity<?> getAllRooms(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) String fields) {
+        if (limit == null && cursor == null && fields == null) {
+            // Served from the in-memory catalog, an unchanged list is answered with 304
+            return ConditionalResponses.ok(roomService.getRoomsVersion()).body(roomService.getAllRooms());
+        }
+        return PageResponses.page(limit, cursor, fields, roomService::getRoomPage, roomService::getRoomSummaryPage);
+    }
+
+    // Search rooms free for the whole stay, e.g. /api/rooms/available?checkIn=2025-06-01&checkOut=2025-06-04&type=Suite
+    @GetMapping("/available")
+    public ResponseEntity<List<RoomSnapshot>> getAvailableRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Double maxPrice) {
+        if (!checkIn.isBefore(checkOut)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(roomService.findAvailableRooms(checkIn, checkOut, type, maxPrice));
     }
 
     // Get room by ID
     @GetMapping("/{id}")
     public ResponseEntity<Room> getRoomById(@PathVariable Long id) {
         return roomService.getRoomById(id)
-                .map(ResponseEntity::ok)
+                .map(room -> ConditionalResponses.ok(roomService.getRoomVersion(room)).body(room))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -1,6 +1,7 @@
 package com.hosanna.hotelmanagement.controller;
 
 import com.hosanna.hotelmanagement.model.User;
+import com.hosanna.hotelmanagement.service.PasswordHashingBusyException;
 import com.hosanna.hotelmanagement.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,7 +10,6 @@ import org.springframework.web.bind.annotation.*;
 import com.hosanna.hotelmanagement.config.JwtUtil;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -36,6 +36,8 @@ public class UserController {
             response.put("role", registeredUser.getRole());
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -68,6 +70,8 @@ public class UserController {
             response.put("message", "Login successful!");
 
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -75,10 +79,23 @@ public class UserController {
         }
     }
 
+    // Password hashing pool is full - tell the client to back off instead of queueing the request
+    private ResponseEntity<?> tooManyRequests(PasswordHashingBusyException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").body(error);
+    }
+
     // Get all users (Admin use-case or testing)
+    // With limit, cursor or fields a keyset page is returned instead (fields=summary leaves out the password hash)
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) String fields) {
+        if (limit == null && cursor == null && fields == null) {
+            return ResponseEntity.ok(userService.getAllUsers());
+        }
+        return PageResponses.page(limit, cursor, fields, userService::getUserPage, userService::getUserSummaryPage);
     }
 
     // Get a user by ID
@@ -100,6 +117,8 @@ public class UserController {
         try {
             User updated = userService.updateUser(id, user);
             return ResponseEntity.ok(updated);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
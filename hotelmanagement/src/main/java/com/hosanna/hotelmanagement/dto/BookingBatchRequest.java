@@ -0,0 +1,16 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/bookings/batch: a block of bookings created in one transaction
+ */
+public record BookingBatchRequest(Mode mode, List<BookingRequest> items) {
+
+    public enum Mode {
+        // Nothing is created unless every item can be booked
+        ALL_OR_NOTHING,
+        // Items that can be booked are created, the others are reported as rejected
+        PARTIAL
+    }
+}
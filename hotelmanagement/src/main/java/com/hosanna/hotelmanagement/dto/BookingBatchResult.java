@@ -0,0 +1,28 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a booking batch, with one entry per requested item in request order
+ */
+public record BookingBatchResult(BookingBatchRequest.Mode mode, int created, int rejected, List<Item> items) {
+
+    /**
+     * status is CREATED (bookingId set), REJECTED (error set) or SKIPPED
+     * (valid, but not created because another item of an ALL_OR_NOTHING batch was rejected)
+     */
+    public record Item(int index, String status, Long bookingId, String error) {
+
+        public static Item created(int index, Long bookingId) {
+            return new Item(index, "CREATED", bookingId, null);
+        }
+
+        public static Item rejected(int index, String error) {
+            return new Item(index, "REJECTED", null, error);
+        }
+
+        public static Item skipped(int index) {
+            return new Item(index, "SKIPPED", null, null);
+        }
+    }
+}
@@ -10,6 +10,8 @@ public class BookingRequest {
 
     private Long userId;
     private Long roomId;
+    // Instead of roomId: book any room of the type, the room is assigned at check-in
+    private String roomType;
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
     private String status;
@@ -42,6 +44,14 @@ public class BookingRequest {
         this.roomId = roomId;
     }
 
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(String roomType) {
+        this.roomType = roomType;
+    }
+
     public LocalDate getCheckInDate() {
         return checkInDate;
     }
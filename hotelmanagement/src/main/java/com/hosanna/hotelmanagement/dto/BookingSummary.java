@@ -0,0 +1,11 @@
+package com.hosanna.hotelmanagement.dto;
+
+import com.hosanna.hotelmanagement.model.BookingStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Flat view of a booking without the nested user and room (selected with fields=summary)
+ */
+public record BookingSummary(Long id, Long userId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate, BookingStatus status) {
+}
@@ -0,0 +1,11 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.time.Instant;
+
+/**
+ * Versions and update times of a booking, its user and its room (room fields null until a room is assigned)
+ */
+public record BookingVersion(Long id, Long version, Instant updatedAt,
+                             Long userVersion, Instant userUpdatedAt,
+                             Long roomVersion, Instant roomUpdatedAt) {
+}
@@ -0,0 +1,14 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Outcome of checking the room-type counters from the night from on against the BOOKED stays.
+ * mismatches lists at most the first 100 drifted counters; repaired tells whether they were overwritten.
+ */
+public record InventoryReconciliation(LocalDate from, int mismatchCount, boolean repaired, List<Mismatch> mismatches) {
+
+    public record Mismatch(String roomType, LocalDate night, int counted, int expected) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rate calendar of a room type for the nights from..to (inclusive).
+ * rate is null on nights without a rate, those are priced at each room's own price.
+ */
+public record NightlyRates(String roomType, LocalDate from, LocalDate to, List<Night> nights) {
+
+    public record Night(LocalDate date, BigDecimal rate) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Room nights sold against room nights in inventory for the nights from..to (inclusive), optionally for one room type.
+ * Inventory is the current room count, so rooms added or removed later count for past nights as well.
+ */
+public record OccupancyReport(LocalDate from, LocalDate to, String type,
+                              long roomNightsSold, long roomNightsAvailable, double occupancyRate,
+                              List<Day> days) {
+
+    public record Day(LocalDate date, long roomsSold, long roomsAvailable, double occupancyRate) {
+    }
+
+    public static double rate(long sold, long available) {
+        return available == 0 ? 0 : (double) sold / available;
+    }
+}
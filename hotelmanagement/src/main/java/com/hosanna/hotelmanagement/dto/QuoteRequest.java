@@ -0,0 +1,17 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Body of POST /api/quotes: stays to price, with the price of every night when nightly is true
+ */
+public record QuoteRequest(boolean nightly, List<Item> items) {
+
+    /**
+     * A stay in one room (roomId), or in any room of a type (roomType, priced at the type's lowest room price
+     * on nights without a rate)
+     */
+    public record Item(Long roomId, String roomType, LocalDate checkInDate, LocalDate checkOutDate) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Prices of a quote request, one entry per requested item in request order.
+ * Amounts are exact to the cent; averageNightly is rounded half-even.
+ */
+public record QuoteResult(int quoted, int rejected, List<Item> items) {
+
+    /**
+     * status is QUOTED (prices set) or REJECTED (error set)
+     */
+    public record Item(int index, String status, Long roomId, String roomType,
+                       LocalDate checkInDate, LocalDate checkOutDate, Integer nights,
+                       BigDecimal total, BigDecimal averageNightly, List<NightlyRates.Night> nightly, String error) {
+
+        public static Item quoted(int index, Long roomId, String roomType, LocalDate checkInDate, LocalDate checkOutDate,
+                                  int nights, BigDecimal total, BigDecimal averageNightly, List<NightlyRates.Night> nightly) {
+            return new Item(index, "QUOTED", roomId, roomType, checkInDate, checkOutDate, nights,
+                    total, averageNightly, nightly, null);
+        }
+
+        public static Item rejected(int index, String error) {
+            return new Item(index, "REJECTED", null, null, null, null, null, null, null, null, error);
+        }
+    }
+}
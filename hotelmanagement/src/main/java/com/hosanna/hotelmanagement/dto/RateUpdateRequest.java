@@ -0,0 +1,20 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Body of PUT /api/rates: rates applied in one transaction, later items win where they overlap
+ */
+public record RateUpdateRequest(List<Item> items) {
+
+    /**
+     * Sets rate on the nights from..to (inclusive) of roomType, only on daysOfWeek when given
+     * (e.g. FRIDAY and SATURDAY for weekend pricing)
+     */
+    public record Item(String roomType, LocalDate from, LocalDate to, BigDecimal rate, Set<DayOfWeek> daysOfWeek) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.time.Instant;
+
+/**
+ * Validators of a representation for conditional GETs: an entity tag built from entity versions
+ * (unquoted) and the last modification time, null when unknown.
+ */
+public record ResourceVersion(String eTag, Instant lastModified) {
+
+    /**
+     * True when an If-None-Match header value names this tag (weak comparison, * matches anything)
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
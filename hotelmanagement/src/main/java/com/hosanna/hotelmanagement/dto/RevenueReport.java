@@ -0,0 +1,24 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Room revenue for the nights from..to (inclusive), in total and per room type.
+ * adr = revenue / room nights sold, revpar = revenue / room nights in inventory.
+ */
+public record RevenueReport(LocalDate from, LocalDate to, String type,
+                            long roomNightsSold, long roomNightsAvailable,
+                            double revenue, double adr, double revpar, double occupancyRate,
+                            List<Line> byType) {
+
+    public record Line(String roomType, long roomNightsSold, long roomNightsAvailable,
+                       double revenue, double adr, double revpar, double occupancyRate) {
+
+        public static Line of(String roomType, long sold, long available, double revenue) {
+            return new Line(roomType, sold, available, revenue,
+                    sold == 0 ? 0 : revenue / sold, available == 0 ? 0 : revenue / available,
+                    OccupancyReport.rate(sold, available));
+        }
+    }
+}
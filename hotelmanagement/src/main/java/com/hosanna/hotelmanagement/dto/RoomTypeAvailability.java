@@ -0,0 +1,15 @@
+package com.hosanna.hotelmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rooms of a type still free on every night of a stay (available), from the per-night sold counters.
+ * capacity is the current number of rooms of the type.
+ */
+public record RoomTypeAvailability(String roomType, LocalDate checkInDate, LocalDate checkOutDate,
+                                   int capacity, int available, List<Night> nights) {
+
+    public record Night(LocalDate date, int sold, int free) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.hosanna.hotelmanagement.dto;
+
+/**
+ * Public fields of a user (selected with fields=summary)
+ */
+public record UserSummary(Long id, String username, String email, String role) {
+}
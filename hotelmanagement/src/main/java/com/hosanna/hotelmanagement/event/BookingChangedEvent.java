@@ -0,0 +1,16 @@
+package com.hosanna.hotelmanagement.event;
+
+/**
+ * Published by BookingService whenever a booking is created, updated, completed or deleted.
+ * before is null for new bookings, after is null for deleted ones.
+ */
+public record BookingChangedEvent(BookingSnapshot before, BookingSnapshot after) {
+
+    public static BookingChangedEvent created(BookingSnapshot after) {
+        return new BookingChangedEvent(null, after);
+    }
+
+    public static BookingChangedEvent deleted(BookingSnapshot before) {
+        return new BookingChangedEvent(before, null);
+    }
+}
@@ -0,0 +1,32 @@
+package com.hosanna.hotelmanagement.event;
+
+import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of the booking fields that in-memory indexes care about.
+ * Taken before and after a change so listeners never touch managed entities.
+ * roomId is null for a room-type booking the allocator has not given a room yet.
+ */
+public record BookingSnapshot(Long id, Long roomId, String roomType, LocalDate checkInDate, LocalDate checkOutDate,
+                              BookingStatus status) {
+
+    public static BookingSnapshot of(Booking booking) {
+        Long roomId = booking.getRoom() != null ? booking.getRoom().getId() : null;
+        return new BookingSnapshot(booking.getId(), roomId, booking.getRoomType(), booking.getCheckInDate(),
+                booking.getCheckOutDate(), booking.getStatus());
+    }
+
+    /**
+     * A booking blocks its room unless it has been cancelled or completed
+     */
+    public boolean isActive() {
+        return status.isActive();
+    }
+
+    public long nights() {
+        return checkOutDate.toEpochDay() - checkInDate.toEpochDay();
+    }
+}
@@ -0,0 +1,11 @@
+package com.hosanna.hotelmanagement.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Published by RateService for every room type a bulk rate update touched, with the new rate per night
+ */
+public record RatesChangedEvent(String roomType, Map<LocalDate, BigDecimal> rates) {
+}
@@ -0,0 +1,8 @@
+package com.hosanna.hotelmanagement.event;
+
+/**
+ * Published by RoomService whenever a room is created, updated or deleted.
+ * before is null for created rooms, after is null for deleted rooms.
+ */
+public record RoomChangedEvent(Long roomId, RoomSnapshot before, RoomSnapshot after) {
+}
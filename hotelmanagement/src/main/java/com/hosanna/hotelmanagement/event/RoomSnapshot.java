@@ -0,0 +1,13 @@
+package com.hosanna.hotelmanagement.event;
+
+import com.hosanna.hotelmanagement.model.Room;
+
+/**
+ * Immutable copy of the catalog fields of a room (everything except the available flag)
+ */
+public record RoomSnapshot(Long id, String roomNumber, String type, Double price) {
+
+    public static RoomSnapshot of(Room room) {
+        return new RoomSnapshot(room.getId(), room.getRoomNumber(), room.getType(), room.getPrice());
+    }
+}
@@ -2,45 +2,76 @@ package com.hosanna.hotelmanagement.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "bookings")
+// The status indexes are partial indexes on the live subsets, created in db/schema-postgresql.sql
+@Table(name = "bookings", indexes = {
+        // per-room listings and overlap checks
+        @Index(name = "idx_bookings_room_dates", columnList = "room_id, check_in_date, check_out_date")
+})
+// Fetch plans for the lazy associations, picked per query in BookingRepository
+@NamedEntityGraph(name = "Booking.withUserAndRoom", attributeNodes = {@NamedAttributeNode("user"), @NamedAttributeNode("room")})
+@NamedEntityGraph(name = "Booking.withRoom", attributeNodes = @NamedAttributeNode("room"))
+@NamedEntityGraph(name = "Booking.withUser", attributeNodes = @NamedAttributeNode("user"))
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (50 ids per round trip) instead of IDENTITY so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     // Many bookings can belong to one user
     // FIXED: Added JsonIgnoreProperties to prevent circular reference
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: availability checks and summaries never need the user row (or its password hash)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
-    @JsonIgnoreProperties({"password", "bookings"})
+    @JsonIgnoreProperties({"password", "bookings", "hibernateLazyInitializer", "handler"})
     private User user;
 
     // Many bookings can belong to one room
     // FIXED: Added JsonIgnoreProperties to prevent circular reference
-    @ManyToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "room_id", nullable = false)
-    @JsonIgnoreProperties({"bookings"})
+    // Null for a room-type booking until RoomAllocator assigns a room at check-in
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id")
+    @JsonIgnoreProperties({"bookings", "hibernateLazyInitializer", "handler"})
     private Room room;
 
+    // Room type sold, counted by RoomTypeInventory (the room's type at booking time for room bookings)
+    private String roomType;
+
     @Column(nullable = false)
     private LocalDate checkInDate;
 
     @Column(nullable = false)
     private LocalDate checkOutDate;
 
+    // smallint code, see BookingStatus
+    @Convert(converter = BookingStatus.Converter.class)
     @Column(nullable = false)
-    private String status = "BOOKED"; // BOOKED / CANCELLED / COMPLETED
+    private BookingStatus status = BookingStatus.BOOKED;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // Last write through JPA or the completion job, sent as Last-Modified (null for rows older than the column)
+    @UpdateTimestamp
+    private Instant updatedAt;
 
     // Constructors
     public Booking() {}
 
-    public Booking(User user, Room room, LocalDate checkInDate, LocalDate checkOutDate, String status) {
+    public Booking(User user, Room room, LocalDate checkInDate, LocalDate checkOutDate, BookingStatus status) {
         this.user = user;
         this.room = room;
+        this.roomType = room.getType();
         this.checkInDate = checkInDate;
         this.checkOutDate = checkOutDate;
         this.status = status;
@@ -71,6 +102,14 @@ public class Booking {
         this.room = room;
     }
 
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(String roomType) {
+        this.roomType = roomType;
+    }
+
     public LocalDate getCheckInDate() {
         return checkInDate;
     }
@@ -87,11 +126,27 @@ public class Booking {
         this.checkOutDate = checkOutDate;
     }
 
-    public String getStatus() {
+    public BookingStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(BookingStatus status) {
         this.status = status;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
\ No newline at end of file
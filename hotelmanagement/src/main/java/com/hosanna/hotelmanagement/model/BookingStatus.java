@@ -0,0 +1,89 @@
+package com.hosanna.hotelmanagement.model;
+
+import jakarta.persistence.AttributeConverter;
+
+import java.util.Locale;
+
+/**
+ * Lifecycle of a booking, stored as a smallint code (see Converter).
+ * The codes are part of the schema: the native SQL, the partial indexes and the exclusion
+ * constraint in db/schema-postgresql.sql use them as literals, so never renumber them.
+ *
+ * BOOKED -> CANCELLED, BOOKED -> COMPLETED and CANCELLED -> BOOKED (rebooking, the overlap
+ * check still applies) are the only transitions; COMPLETED is final.
+ */
+public enum BookingStatus {
+
+    BOOKED(0),
+    CANCELLED(1),
+    COMPLETED(2);
+
+    private static final BookingStatus[] BY_CODE = {BOOKED, CANCELLED, COMPLETED};
+
+    private final short code;
+
+    BookingStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    /**
+     * A booking blocks its room's nights only while BOOKED
+     */
+    public boolean isActive() {
+        return this == BOOKED;
+    }
+
+    /**
+     * Nights of BOOKED and COMPLETED stays count as sold in the reports
+     */
+    public boolean isSold() {
+        return this != CANCELLED;
+    }
+
+    public boolean canTransitionTo(BookingStatus next) {
+        return switch (this) {
+            case BOOKED -> next != BOOKED;
+            case CANCELLED -> next == BOOKED;
+            case COMPLETED -> false;
+        };
+    }
+
+    public static BookingStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown booking status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Status named in a request, case-insensitive; null stays null
+     */
+    public static BookingStatus parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown booking status: " + name);
+        }
+    }
+
+    @jakarta.persistence.Converter
+    public static class Converter implements AttributeConverter<BookingStatus, Short> {
+
+        @Override
+        public Short convertToDatabaseColumn(BookingStatus status) {
+            return status != null ? status.code : null;
+        }
+
+        @Override
+        public BookingStatus convertToEntityAttribute(Short code) {
+            return code != null ? fromCode(code) : null;
+        }
+    }
+}
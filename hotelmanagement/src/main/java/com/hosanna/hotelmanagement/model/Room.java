@@ -1,13 +1,25 @@
 package com.hosanna.hotelmanagement.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
+// Serialized through Booking's lazy proxies as well, skip the proxy internals
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "rooms")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "room")
 public class Room {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rooms_seq")
+    @SequenceGenerator(name = "rooms_seq", sequenceName = "rooms_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -22,6 +34,16 @@ public class Room {
     @Column(nullable = false)
     private Boolean available = true;
 
+    // Bumped by every booking of the room too, so concurrent bookings on other instances conflict
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // Last write through JPA or the completion job, sent as Last-Modified (null for rows older than the column)
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // Constructors
     public Room() {}
 
@@ -72,4 +94,20 @@ public class Room {
     public void setAvailable(Boolean available) {
         this.available = available;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,94 @@
+package com.hosanna.hotelmanagement.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Price of one night for every room of a type. Nights without a rate fall back to Room.price.
+ * Served from memory by RateCalendar, this table is only read at startup and reload.
+ */
+@Entity
+@Table(name = "room_rates")
+public class RoomRate implements Persistable<RoomRate.Key> {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal rate;
+
+    // The id is assigned, so save() would select every new row first to tell insert from update
+    @Transient
+    private boolean isNew = true;
+
+    public RoomRate() {}
+
+    public RoomRate(String roomType, LocalDate stayDate, BigDecimal rate) {
+        this.id = new Key(roomType, stayDate);
+        this.rate = rate;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Key getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getRoomType() {
+        return id.roomType;
+    }
+
+    public LocalDate getStayDate() {
+        return id.stayDate;
+    }
+
+    public BigDecimal getRate() {
+        return rate;
+    }
+
+    public void setRate(BigDecimal rate) {
+        this.rate = rate;
+    }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(nullable = false)
+        private String roomType;
+
+        @Column(nullable = false)
+        private LocalDate stayDate;
+
+        public Key() {}
+
+        public Key(String roomType, LocalDate stayDate) {
+            this.roomType = roomType;
+            this.stayDate = stayDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && roomType.equals(key.roomType) && stayDate.equals(key.stayDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(roomType, stayDate);
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.hosanna.hotelmanagement.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
+// Serialized through Booking's lazy proxies as well, skip the proxy internals
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "users") // table name in PostgreSQL
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -22,6 +30,16 @@ public class User {
     @Column(nullable = false)
     private String role = "USER"; // default role
 
+    // Part of the ETag of every booking the user is embedded in
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // Last write through JPA, sent as Last-Modified of those bookings (null for rows older than the column)
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // Constructors
     public User() {}
     public User(String username, String email, String password, String role) {
@@ -46,4 +64,10 @@ public class User {
 
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
@@ -1,17 +1,115 @@
 package com.hosanna.hotelmanagement.repository;
 
+import com.hosanna.hotelmanagement.dto.BookingSummary;
+import com.hosanna.hotelmanagement.dto.BookingVersion;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
 import com.hosanna.hotelmanagement.model.Booking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    // Find all bookings for a specific user
-    List<Booking> findByUserId(Long userId);
+    // Admin listing: user and room in the same select
+    @Override
+    @EntityGraph("Booking.withUserAndRoom")
+    List<Booking> findAll();
 
-    // Find all bookings for a specific room
-    List<Booking> findByRoomId(Long roomId);
-}
\ No newline at end of file
+    @Override
+    @EntityGraph("Booking.withUserAndRoom")
+    Optional<Booking> findById(Long id);
+
+    // Find all bookings for a specific user (user history: rooms joined, the user itself is loaded once).
+    // Filtered on the user_id column: the derived query would join users just to compare its id
+    @EntityGraph("Booking.withRoom")
+    @Query("select b from Booking b where b.user.id = :userId")
+    List<Booking> findByUserId(@Param("userId") Long userId);
+
+    // Find all bookings for a specific room (users joined, the room itself is loaded once), filtered on room_id
+    @EntityGraph("Booking.withUser")
+    @Query("select b from Booking b where b.room.id = :roomId")
+    List<Booking> findByRoomId(@Param("roomId") Long roomId);
+
+    // Validators of GET /api/bookings/{id}: versions and update times of the booking, its user and its room,
+    // read by primary key without loading any of them
+    @Query("select new com.hosanna.hotelmanagement.dto.BookingVersion(b.id, b.version, b.updatedAt, u.version, u.updatedAt, r.version, r.updatedAt) " +
+            "from Booking b join b.user u left join b.room r where b.id = :id")
+    Optional<BookingVersion> findVersionById(@Param("id") Long id);
+
+    // Room of a booking without loading it, to pick the room locks before the write transaction starts
+    // (0 for a room-type booking without a room yet)
+    @Query("select coalesce(b.room.id, 0L) from Booking b where b.id = :id")
+    Optional<Long> findRoomIdById(@Param("id") Long id);
+
+    // Status literals (not parameters) so PostgreSQL can match the partial indexes on the live bookings
+
+    // Date ranges of every booking that still blocks its room (used to warm the availability index)
+    @Query("select new com.hosanna.hotelmanagement.event.BookingSnapshot(b.id, b.room.id, b.roomType, b.checkInDate, b.checkOutDate, b.status) " +
+            "from Booking b where b.status = com.hosanna.hotelmanagement.model.BookingStatus.BOOKED")
+    List<BookingSnapshot> findActiveSnapshots();
+
+    // Room-type bookings still waiting for a room that arrive on or before the given day and have not left,
+    // in arrival order and longest stays first so the allocator fills the tightest gaps first
+    @Query("select new com.hosanna.hotelmanagement.event.BookingSnapshot(b.id, b.room.id, b.roomType, b.checkInDate, b.checkOutDate, b.status) " +
+            "from Booking b where b.room.id is null and b.status = com.hosanna.hotelmanagement.model.BookingStatus.BOOKED " +
+            "and b.checkInDate <= :date and b.checkOutDate > :date " +
+            "order by b.checkInDate, b.checkOutDate desc, b.id")
+    List<BookingSnapshot> findUnassignedArrivals(@Param("date") LocalDate date);
+
+    // Overlap check done in the database, only used when the availability index is not loaded
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.room.id = :roomId " +
+            "and b.status = com.hosanna.hotelmanagement.model.BookingStatus.BOOKED " +
+            "and b.checkInDate < :checkOut and b.checkOutDate > :checkIn " +
+            "and (:excludeId is null or b.id <> :excludeId)")
+    boolean existsOverlappingBooking(@Param("roomId") Long roomId,
+                                     @Param("checkIn") LocalDate checkIn,
+                                     @Param("checkOut") LocalDate checkOut,
+                                     @Param("excludeId") Long excludeId);
+
+    // Bookings checking in today or later that were not cancelled, as summaries read from the bookings table
+    // alone (the implied check-out bound lets PostgreSQL skip the past months' partitions)
+    @Query("select new com.hosanna.hotelmanagement.dto.BookingSummary(b.id, b.user.id, b.room.id, b.checkInDate, b.checkOutDate, b.status) " +
+            "from Booking b " +
+            "where b.checkInDate >= :today and b.checkOutDate > :today and b.status <> com.hosanna.hotelmanagement.model.BookingStatus.CANCELLED " +
+            "order by b.checkInDate, b.id")
+    List<BookingSummary> findUpcoming(@Param("today") LocalDate today);
+
+    // Booked stays that cover today, as summaries
+    @Query("select new com.hosanna.hotelmanagement.dto.BookingSummary(b.id, b.user.id, b.room.id, b.checkInDate, b.checkOutDate, b.status) " +
+            "from Booking b " +
+            "where b.status = com.hosanna.hotelmanagement.model.BookingStatus.BOOKED and b.checkInDate <= :today and b.checkOutDate >= :today " +
+            "order by b.checkInDate, b.id")
+    List<BookingSummary> findActive(@Param("today") LocalDate today);
+
+    // Keyset pages ordered by id, user and room are fetched in the same select
+    @EntityGraph("Booking.withUserAndRoom")
+    List<Booking> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @EntityGraph("Booking.withUserAndRoom")
+    List<Booking> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
+    @EntityGraph("Booking.withUserAndRoom")
+    List<Booking> findByRoomIdAndIdGreaterThanOrderByIdAsc(Long roomId, Long afterId, Pageable pageable);
+
+    // Same pages as flat summaries, read from the bookings table alone
+    @Query("select new com.hosanna.hotelmanagement.dto.BookingSummary(b.id, b.user.id, b.room.id, b.checkInDate, b.checkOutDate, b.status) " +
+            "from Booking b where b.id > :afterId order by b.id")
+    List<BookingSummary> findSummaries(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new com.hosanna.hotelmanagement.dto.BookingSummary(b.id, b.user.id, b.room.id, b.checkInDate, b.checkOutDate, b.status) " +
+            "from Booking b where b.user.id = :userId and b.id > :afterId order by b.id")
+    List<BookingSummary> findSummariesByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new com.hosanna.hotelmanagement.dto.BookingSummary(b.id, b.user.id, b.room.id, b.checkInDate, b.checkOutDate, b.status) " +
+            "from Booking b where b.room.id = :roomId and b.id > :afterId order by b.id")
+    List<BookingSummary> findSummariesByRoomId(@Param("roomId") Long roomId, @Param("afterId") Long afterId, Pageable pageable);
+}
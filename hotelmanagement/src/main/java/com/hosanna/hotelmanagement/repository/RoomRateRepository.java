@@ -0,0 +1,20 @@
+package com.hosanna.hotelmanagement.repository;
+
+import com.hosanna.hotelmanagement.model.RoomRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RoomRateRepository extends JpaRepository<RoomRate, RoomRate.Key> {
+
+    // Rates of one type over the nights from..to (inclusive), a primary key range scan
+    @Query("select r from RoomRate r where r.id.roomType = :roomType and r.id.stayDate between :from and :to")
+    List<RoomRate> findRange(@Param("roomType") String roomType,
+                             @Param("from") LocalDate from,
+                             @Param("to") LocalDate to);
+}
@@ -1,10 +1,31 @@
 package com.hosanna.hotelmanagement.repository;
 
 import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.event.RoomSnapshot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
-    // Custom queries if needed later
+
+    // Keyset pages ordered by id
+    List<Room> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("select new com.hosanna.hotelmanagement.event.RoomSnapshot(r.id, r.roomNumber, r.type, r.price) " +
+            "from Room r where r.id > :afterId order by r.id")
+    List<RoomSnapshot> findSnapshots(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Loads the room for a booking write: its version is bumped at commit even if nothing else changes,
+    // so two transactions booking the same room cannot both commit
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select r from Room r where r.id = :id")
+    Optional<Room> findByIdForBooking(@Param("id") Long id);
 }
@@ -1,10 +1,23 @@
 package com.hosanna.hotelmanagement.repository;
 
+import com.hosanna.hotelmanagement.dto.UserSummary;
 import com.hosanna.hotelmanagement.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    // Keyset pages ordered by id
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("select new com.hosanna.hotelmanagement.dto.UserSummary(u.id, u.username, u.email, u.role) " +
+            "from User u where u.id > :afterId order by u.id")
+    List<UserSummary> findSummaries(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,164 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Completes BOOKED stays whose check-out date has passed, one chunk per transaction.
+ * Every chunk is a single UPDATE ... RETURNING over the next ids (keyset on id) followed by
+ * one set-based recompute of the touched rooms' available flag. The work is driven by the
+ * status predicate only, so a run interrupted by a crash is finished by simply running again.
+ */
+@Component
+public class BookingCompletionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingCompletionJob.class);
+
+    private static final String COMPLETE_CHUNK = """
+            UPDATE bookings SET status = 2, version = version + 1, updated_at = now() -- COMPLETED
+            WHERE id IN (
+                SELECT id FROM bookings
+                WHERE status = 0 AND check_out_date < :today AND id > :afterId -- BOOKED, idx_bookings_booked_check_out
+                ORDER BY id
+                LIMIT :chunkSize
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, room_id, room_type, check_in_date, check_out_date
+            """;
+
+    private static final String RECOMPUTE_ROOMS = """
+            UPDATE rooms r SET version = r.version + 1, updated_at = now(), available = NOT EXISTS (
+                SELECT 1 FROM bookings b
+                WHERE b.room_id = r.id AND b.status = 0) -- BOOKED
+            WHERE r.id IN (:roomIds)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int chunkSize;
+    private final boolean runOnStartup;
+    private final Counter completedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BookingCompletionJob(NamedParameterJdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                EntityManagerFactory entityManagerFactory,
+                                MeterRegistry meterRegistry,
+                                @Value("${booking.completion.chunk-size:500}") int chunkSize,
+                                @Value("${booking.completion.resume-on-startup:true}") boolean runOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkSize = chunkSize;
+        this.runOnStartup = runOnStartup;
+        this.completedCounter = Counter.builder("booking.completion.completed")
+                .description("Bookings moved to COMPLETED by the completion job")
+                .register(meterRegistry);
+    }
+
+    // Picks up whatever a run interrupted by a crash or restart left behind
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        if (!runOnStartup) {
+            return;
+        }
+        run(LocalDate.now());
+    }
+
+    /**
+     * Completes every BOOKED stay with a check-out date before today and returns how many were completed
+     */
+    public long run(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Booking completion already running, skipping");
+            return 0;
+        }
+        try {
+            long started = System.nanoTime();
+            long total = 0;
+            long afterId = 0;
+            while (true) {
+                List<BookingSnapshot> chunk = completeChunk(today, afterId);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                total += chunk.size();
+                completedCounter.increment(chunk.size());
+                afterId = chunk.stream().mapToLong(BookingSnapshot::id).max().getAsLong();
+            }
+
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            if (total > 0) {
+                log.info("Auto-completed {} expired bookings in {} s ({} rows/s)",
+                        total, String.format("%.2f", seconds), Math.round(total / Math.max(seconds, 0.001)));
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<BookingSnapshot> completeChunk(LocalDate today, long afterId) {
+        return transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("today", Date.valueOf(today))
+                    .addValue("afterId", afterId)
+                    .addValue("chunkSize", chunkSize);
+            List<BookingSnapshot> completed = jdbcTemplate.query(COMPLETE_CHUNK, params, (rs, rowNum) ->
+                    new BookingSnapshot(rs.getLong("id"), rs.getObject("room_id", Long.class), rs.getString("room_type"),
+                            rs.getDate("check_in_date").toLocalDate(), rs.getDate("check_out_date").toLocalDate(), BookingStatus.COMPLETED));
+            if (completed.isEmpty()) {
+                return completed;
+            }
+
+            // Room-type bookings never given a room (no-shows) have none to free
+            List<Long> roomIds = completed.stream().map(BookingSnapshot::roomId).filter(Objects::nonNull).distinct().toList();
+            if (!roomIds.isEmpty()) {
+                jdbcTemplate.update(RECOMPUTE_ROOMS, new MapSqlParameterSource("roomIds", roomIds));
+                // Plain SQL bypasses Hibernate, drop the cached rooms it changed once the chunk has committed;
+                // evicting earlier would let a concurrent reader cache the old row again until the next write
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        roomIds.forEach(id -> entityManagerFactory.getCache().evict(Room.class, id));
+                    }
+                });
+            }
+
+            // Delivered to the in-memory indexes once this chunk commits
+            for (BookingSnapshot after : completed) {
+                BookingSnapshot before = new BookingSnapshot(after.id(), after.roomId(), after.roomType(),
+                        after.checkInDate(), after.checkOutDate(), BookingStatus.BOOKED);
+                eventPublisher.publishEvent(new BookingChangedEvent(before, after));
+            }
+            return completed;
+        });
+    }
+}
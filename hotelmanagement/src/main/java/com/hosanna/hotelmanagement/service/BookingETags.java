@@ -0,0 +1,59 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.BookingVersion;
+import com.hosanna.hotelmanagement.dto.ResourceVersion;
+import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.User;
+import com.hosanna.hotelmanagement.repository.BookingRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Validators of GET /api/bookings/{id}. The tag combines the versions of the booking, its user and its
+ * room, all three embedded in the representation; Last-Modified is the latest of their update times.
+ * A conditional request is confirmed against the database with one primary-key lookup of those
+ * columns, so a write on any instance changes the answer at once, and only a miss loads the booking.
+ */
+@Component
+public class BookingETags {
+
+    private final BookingRepository bookingRepository;
+
+    public BookingETags(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Validators of the booking as it is in the database now, empty when it does not exist
+     */
+    public Optional<ResourceVersion> current(Long bookingId) {
+        // Not in a read-only transaction, so the primary answers rather than a lagging replica
+        return bookingRepository.findVersionById(bookingId).map(row -> versionOf(row.id(),
+                row.version(), row.updatedAt(), row.userVersion(), row.userUpdatedAt(), row.roomVersion(), row.roomUpdatedAt()));
+    }
+
+    /**
+     * Validators of a freshly loaded booking, the same as current() returns for it
+     */
+    public ResourceVersion of(Booking booking) {
+        User user = booking.getUser();
+        Room room = booking.getRoom();
+        return versionOf(booking.getId(), booking.getVersion(), booking.getUpdatedAt(), user.getVersion(), user.getUpdatedAt(),
+                room != null ? room.getVersion() : null, room != null ? room.getUpdatedAt() : null);
+    }
+
+    // roomVersion is null while a room-type booking waits for the allocator
+    private static ResourceVersion versionOf(Long bookingId, long version, Instant updatedAt,
+                                             long userVersion, Instant userUpdatedAt,
+                                             Long roomVersion, Instant roomUpdatedAt) {
+        String tag = "b" + bookingId + "-" + version + "-u" + userVersion;
+        Instant lastModified = ResourceVersion.latest(updatedAt, userUpdatedAt);
+        if (roomVersion == null) {
+            return new ResourceVersion(tag, lastModified);
+        }
+        return new ResourceVersion(tag + "-" + roomVersion, ResourceVersion.latest(lastModified, roomUpdatedAt));
+    }
+}
@@ -0,0 +1,138 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hosanna.hotelmanagement.dto.BookingSummary;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Streams bookings (archived months included) straight from a JDBC cursor to the response, one flat row at a time.
+ * The query runs in a read-only transaction (on a replica when they are configured) so PostgreSQL
+ * honours the fetch size with a server-side cursor; memory use stays the same whatever the number of rows.
+ */
+@Service
+public class BookingExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private static final String CSV_HEADER = "id,userId,roomId,checkInDate,checkOutDate,status\n";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectWriter rowWriter;
+
+    public BookingExportService(DataSource dataSource,
+                                ObjectMapper objectMapper,
+                                @Value("${booking.export.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbc);
+        this.rowWriter = objectMapper.writerFor(BookingSummary.class);
+    }
+
+    /**
+     * Writes every booking matching the filters (all optional; from/to bound the check-in date, inclusive)
+     * to out in id order. Does not close out.
+     */
+    @Transactional(readOnly = true)
+    public void export(LocalDate from, LocalDate to, BookingStatus status, Long roomId, Format format, OutputStream out)
+            throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, user_id, room_id, check_in_date, check_out_date, status FROM bookings_history WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (from != null) {
+            sql.append(" AND check_in_date >= :from");
+            params.addValue("from", Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND check_in_date <= :to");
+            params.addValue("to", Date.valueOf(to));
+        }
+        if (status != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", status.code());
+        }
+        if (roomId != null) {
+            sql.append(" AND room_id = :roomId");
+            params.addValue("roomId", roomId);
+        }
+        sql.append(" ORDER BY id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        try {
+            jdbcTemplate.query(sql.toString(), params, rs -> {
+                BookingSummary row = new BookingSummary(rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class),
+                        rs.getDate(4).toLocalDate(), rs.getDate(5).toLocalDate(), BookingStatus.fromCode(rs.getShort(6)));
+                try {
+                    writeRow(writer, format, row);
+                } catch (IOException e) {
+                    // Client went away, abandon the cursor
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeRow(Writer writer, Format format, BookingSummary row) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(rowWriter.writeValueAsString(row));
+        } else {
+            writer.write(Long.toString(row.id()));
+            writer.write(',');
+            writer.write(Long.toString(row.userId()));
+            writer.write(',');
+            // Empty for a room-type booking without a room yet
+            if (row.roomId() != null) {
+                writer.write(Long.toString(row.roomId()));
+            }
+            writer.write(',');
+            writer.write(row.checkInDate().toString());
+            writer.write(',');
+            writer.write(row.checkOutDate().toString());
+            writer.write(',');
+            writer.write(row.status().name());
+        }
+        writer.write('\n');
+    }
+}
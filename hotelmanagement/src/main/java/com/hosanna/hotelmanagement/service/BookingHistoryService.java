@@ -0,0 +1,51 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.BookingSummary;
+import com.hosanna.hotelmanagement.dto.PageResponse;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Booking history across the live partitions and the archived months (the bookings_history view).
+ * The JPA queries only see the bookings table, which keeps them on the hot partitions.
+ */
+@Service
+public class BookingHistoryService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public BookingHistoryService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One keyset page of bookings in id order, optionally for one user and/or one room
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<BookingSummary> getHistoryPage(Long userId, Long roomId, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, user_id, room_id, check_in_date, check_out_date, status FROM bookings_history WHERE id > :afterId");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit + 1);
+        if (userId != null) {
+            sql.append(" AND user_id = :userId");
+            params.addValue("userId", userId);
+        }
+        if (roomId != null) {
+            sql.append(" AND room_id = :roomId");
+            params.addValue("roomId", roomId);
+        }
+        sql.append(" ORDER BY id LIMIT :limit");
+
+        List<BookingSummary> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) ->
+                new BookingSummary(rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class),
+                        rs.getDate(4).toLocalDate(), rs.getDate(5).toLocalDate(), BookingStatus.fromCode(rs.getShort(6))));
+        return PageResponse.of(rows, limit, BookingSummary::id);
+    }
+}
@@ -0,0 +1,163 @@
+package com.hosanna.hotelmanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of bookings (range on check_out_date, see schema-postgresql.sql).
+ * Partitions are created monthsAhead months in advance so new stays never land in bookings_default.
+ * A month whose check-out dates all lie more than archiveAfterMonths in the past and that holds no
+ * BOOKED stay is detached and attached to booking_archive.bookings: the live table, its indexes and
+ * the completion job's scans only cover recent months, history reads go through bookings_history.
+ */
+@Component
+public class BookingPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPartitionManager.class);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("bookings_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String LIVE_PARTITIONS = """
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'bookings'::regclass
+            ORDER BY c.relname
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+    private final Counter archivedCounter;
+
+    public BookingPartitionManager(NamedParameterJdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${booking.partitions.enabled:true}") boolean enabled,
+                                   @Value("${booking.partitions.months-ahead:25}") int monthsAhead,
+                                   @Value("${booking.partitions.archive-after-months:12}") int archiveAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.archivedCounter = Counter.builder("booking.partitions.archived")
+                .description("Monthly bookings partitions moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    // Daily, after the completion job has closed yesterday's stays
+    @Scheduled(cron = "${booking.partitions.cron:0 30 2 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        ensurePartitions(today.withDayOfMonth(1), today.plusMonths(monthsAhead));
+        archiveClosedPartitions(today);
+    }
+
+    /**
+     * Creates the missing partitions of every month from..to (check-out dates), returns how many were created
+     */
+    public int ensurePartitions(LocalDate from, LocalDate to) {
+        if (!enabled) {
+            return 0;
+        }
+        int created = 0;
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            try {
+                Boolean isNew = jdbcTemplate.queryForObject("SELECT ensure_booking_partition(:month)",
+                        new MapSqlParameterSource("month", Date.valueOf(month.atDay(1))), Boolean.class);
+                if (Boolean.TRUE.equals(isNew)) {
+                    created++;
+                }
+            } catch (DataAccessException e) {
+                // Typically rows of that month already sitting in bookings_default
+                log.warn("Could not create the bookings partition of {}: {}", month, e.getMessage());
+            }
+        }
+        if (created > 0) {
+            log.info("Created {} bookings partitions up to {}", created, YearMonth.from(to));
+        }
+        return created;
+    }
+
+    /**
+     * Moves every closed-out month before the archive cutoff to booking_archive, returns how many were moved
+     */
+    public int archiveClosedPartitions(LocalDate today) {
+        if (!enabled) {
+            return 0;
+        }
+        YearMonth cutoff = YearMonth.from(today).minusMonths(archiveAfterMonths);
+        int archived = 0;
+        List<String> partitions = jdbcTemplate.getJdbcTemplate().queryForList(LIVE_PARTITIONS, String.class);
+        for (String partition : partitions) {
+            Matcher name = PARTITION_NAME.matcher(partition);
+            if (!name.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(name.group(1), PARTITION_MONTH);
+            if (!month.isBefore(cutoff)) {
+                break;
+            }
+            try {
+                if (archive(partition, month)) {
+                    archived++;
+                    archivedCounter.increment();
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not archive {}: {}", partition, e.getMessage());
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} bookings partitions before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    // Detach, move and attach in one transaction so the month is never missing from bookings_history
+    private boolean archive(String partition, YearMonth month) {
+        return transactionTemplate.execute(status -> {
+            Boolean booked = jdbcTemplate.getJdbcTemplate().queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE status = 0)", Boolean.class); // BOOKED
+            if (Boolean.TRUE.equals(booked)) {
+                log.warn("{} still holds BOOKED stays, not archived", partition);
+                return false;
+            }
+            // The name matched PARTITION_NAME, safe to splice into the DDL
+            jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE bookings DETACH PARTITION " + partition);
+            jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE " + partition + " SET SCHEMA booking_archive");
+            jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE booking_archive.bookings ATTACH PARTITION booking_archive."
+                    + partition + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            return true;
+        });
+    }
+}
@@ -0,0 +1,250 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.event.RoomChangedEvent;
+import com.hosanna.hotelmanagement.event.RoomSnapshot;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Keeps booking_daily_rollup (rooms sold and revenue per stay night and room type) in step with bookings.
+ * Every booking change is turned into +/- deltas per night, summed per transaction and written
+ * just before it commits as one upsert batch sorted by (night, type), so concurrent writers lock
+ * rollup rows in the same order. A night is sold while the booking is BOOKED or COMPLETED and
+ * earns the room's price at the time of the change.
+ *
+ * rebuild() recomputes the table from bookings_history (live and archived) for a backfill; a room's type or price change
+ * moves the nights its bookings cover from the old type and price to the new ones.
+ */
+@Component
+public class BookingRollups {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRollups.class);
+
+    private static final String UPSERT = """
+            INSERT INTO booking_daily_rollup (stay_date, room_type, rooms_sold, revenue)
+            VALUES (:stayDate, :roomType, :roomsSold, :revenue)
+            ON CONFLICT (stay_date, room_type) DO UPDATE SET
+                rooms_sold = booking_daily_rollup.rooms_sold + EXCLUDED.rooms_sold,
+                revenue = booking_daily_rollup.revenue + EXCLUDED.revenue
+            """;
+
+    private static final String RECOMPUTE = """
+            INSERT INTO booking_daily_rollup (stay_date, room_type, rooms_sold, revenue)
+            SELECT CAST(night AS date), r.type, COUNT(*), SUM(CAST(r.price AS numeric(14, 2)))
+            FROM bookings_history b
+            JOIN rooms r ON r.id = b.room_id
+            CROSS JOIN LATERAL generate_series(GREATEST(b.check_in_date, :from), LEAST(b.check_out_date - 1, :to),
+                    INTERVAL '1 day') night
+            WHERE b.status IN (0, 2) AND b.check_in_date <= :to AND b.check_out_date > :from -- BOOKED, COMPLETED
+            GROUP BY CAST(night AS date), r.type
+            """;
+
+    // Takes the room's sold nights out of the old (type, price) and adds them to the new one, as row upserts
+    // in (night, type) order like the booking writers, so neither side needs a table lock
+    private static final String MOVE_ROOM = """
+            INSERT INTO booking_daily_rollup (stay_date, room_type, rooms_sold, revenue)
+            SELECT n.stay_date, c.room_type, SUM(c.sign * n.stays), SUM(c.sign * n.stays * c.price)
+            FROM (SELECT CAST(night AS date) AS stay_date, COUNT(*) AS stays
+                  FROM bookings_history b
+                  CROSS JOIN LATERAL generate_series(b.check_in_date, b.check_out_date - 1, INTERVAL '1 day') night
+                  WHERE b.room_id = :roomId AND b.status IN (0, 2) -- BOOKED, COMPLETED
+                  GROUP BY CAST(night AS date)) n
+            CROSS JOIN (VALUES (CAST(:oldType AS varchar), CAST(:oldPrice AS numeric(14, 2)), -1),
+                               (CAST(:newType AS varchar), CAST(:newPrice AS numeric(14, 2)), 1)) AS c(room_type, price, sign)
+            GROUP BY n.stay_date, c.room_type
+            ORDER BY n.stay_date, c.room_type
+            ON CONFLICT (stay_date, room_type) DO UPDATE SET
+                rooms_sold = booking_daily_rollup.rooms_sold + EXCLUDED.rooms_sold,
+                revenue = booking_daily_rollup.revenue + EXCLUDED.revenue
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomCatalog roomCatalog;
+    private final RoomRepository roomRepository;
+    private final boolean enabled;
+
+    public BookingRollups(NamedParameterJdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          RoomCatalog roomCatalog,
+                          RoomRepository roomRepository,
+                          @Value("${reports.rollups.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.roomCatalog = roomCatalog;
+        this.roomRepository = roomRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Runs at publish time, inside the writer's transaction, so the deltas commit or roll back with it
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        BookingSnapshot before = event.before();
+        BookingSnapshot after = event.after();
+        // Completing a stay or editing it without moving it leaves every night as it was
+        if (isSold(before) && isSold(after) && Objects.equals(before.roomId(), after.roomId())
+                && before.checkInDate().equals(after.checkInDate()) && before.checkOutDate().equals(after.checkOutDate())) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Published outside a transaction: write this change on its own
+            Deltas deltas = new Deltas();
+            deltas.add(before, -1);
+            deltas.add(after, 1);
+            transactionTemplate.executeWithoutResult(status -> write(deltas));
+            return;
+        }
+        Deltas deltas = transactionDeltas();
+        deltas.add(before, -1);
+        deltas.add(after, 1);
+    }
+
+    // The deltas collected so far by the current transaction, written just before it commits
+    private Deltas transactionDeltas() {
+        Deltas deltas = (Deltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = new Deltas();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        return deltas;
+    }
+
+    // The room's type or price moved: move every night its bookings contribute to. Edits of the room number or
+    // available flag, new rooms (no bookings yet) and deleted rooms leave the rollup as it is.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        RoomSnapshot before = event.before();
+        RoomSnapshot after = event.after();
+        if (!enabled || before == null || after == null
+                || (Objects.equals(before.type(), after.type()) && Objects.equals(before.price(), after.price()))) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(MOVE_ROOM, new MapSqlParameterSource()
+                .addValue("roomId", event.roomId())
+                .addValue("oldType", before.type())
+                .addValue("oldPrice", price(before.price()))
+                .addValue("newType", after.type())
+                .addValue("newPrice", price(after.price()))));
+    }
+
+    private static BigDecimal price(Double price) {
+        return price != null ? BigDecimal.valueOf(price) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Recomputes the whole table from bookings (backfill, or after writes that bypassed the events)
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Holds back incremental writers until the new rows are in
+            jdbcTemplate.getJdbcTemplate().execute("LOCK TABLE booking_daily_rollup IN EXCLUSIVE MODE");
+            jdbcTemplate.getJdbcTemplate().update("DELETE FROM booking_daily_rollup");
+            jdbcTemplate.update(RECOMPUTE, new MapSqlParameterSource()
+                    .addValue("from", Date.valueOf(LocalDate.of(1900, 1, 1)))
+                    .addValue("to", Date.valueOf(LocalDate.of(9999, 12, 30))));
+        });
+        log.info("Rebuilt booking rollups in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void write(Deltas deltas) {
+        List<MapSqlParameterSource> batch = new ArrayList<>();
+        deltas.nights.forEach((key, delta) -> {
+            if (delta.roomsSold != 0 || delta.revenueCents != 0) {
+                batch.add(new MapSqlParameterSource()
+                        .addValue("stayDate", Date.valueOf(key.stayDate()))
+                        .addValue("roomType", key.roomType())
+                        .addValue("roomsSold", delta.roomsSold)
+                        .addValue("revenue", BigDecimal.valueOf(delta.revenueCents, 2)));
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, batch.toArray(new MapSqlParameterSource[0]));
+        }
+    }
+
+    private static boolean isSold(BookingSnapshot booking) {
+        return booking != null && booking.status().isSold();
+    }
+
+    private record Night(LocalDate stayDate, String roomType) implements Comparable<Night> {
+
+        @Override
+        public int compareTo(Night other) {
+            int byDate = stayDate.compareTo(other.stayDate);
+            return byDate != 0 ? byDate : roomType.compareTo(other.roomType);
+        }
+    }
+
+    // Revenue in whole cents, so summing many nights never drifts from the numeric(14, 2) column
+    private static final class Delta {
+        long roomsSold;
+        long revenueCents;
+    }
+
+    // The deltas of one transaction, sorted so every writer upserts in the same order
+    private final class Deltas implements TransactionSynchronization {
+
+        final TreeMap<Night, Delta> nights = new TreeMap<>();
+
+        void add(BookingSnapshot booking, int sign) {
+            if (!isSold(booking) || booking.roomId() == null) {
+                return;
+            }
+            Optional<Room> room = roomCatalog.getRoom(booking.roomId()).or(() -> roomRepository.findById(booking.roomId()));
+            if (room.isEmpty()) {
+                return;
+            }
+            String type = room.get().getType();
+            long priceCents = RateCalendar.toCents(price(room.get().getPrice()).setScale(2, RoundingMode.HALF_UP));
+            for (LocalDate night = booking.checkInDate(); night.isBefore(booking.checkOutDate()); night = night.plusDays(1)) {
+                Delta delta = nights.computeIfAbsent(new Night(night, type), key -> new Delta());
+                delta.roomsSold += sign;
+                delta.revenueCents += sign * priceCents;
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookingRollups.this);
+        }
+    }
+}
@@ -1,25 +1,74 @@
 package com.hosanna.hotelmanagement.service;
 
+import com.hosanna.hotelmanagement.dto.BookingBatchRequest;
+import com.hosanna.hotelmanagement.dto.BookingBatchResult;
 import com.hosanna.hotelmanagement.dto.BookingRequest;
+import com.hosanna.hotelmanagement.dto.BookingSummary;
+import com.hosanna.hotelmanagement.dto.PageResponse;
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
 import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.BookingStatus;
 import com.hosanna.hotelmanagement.model.Room;
 import com.hosanna.hotelmanagement.model.User;
 import com.hosanna.hotelmanagement.repository.BookingRepository;
 import com.hosanna.hotelmanagement.repository.RoomRepository;
 import com.hosanna.hotelmanagement.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("booking.service")
 public class BookingService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
+    private static final String ROOM_NOT_AVAILABLE =
+            "Room is not available for the selected dates. Please choose different dates.";
+
+    private static final String CONCURRENT_UPDATE = "The room was changed by another booking. Please try again.";
+
+    private static final String TYPE_SOLD_OUT =
+            "No rooms of this type are left for the selected dates. Please choose different dates.";
+
+    // PostgreSQL exclusion_violation, raised by the bookings_p*_no_overlap constraints and the bookings_no_overlap trigger
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -29,118 +78,352 @@ public class BookingService {
     @Autowired
     private RoomRepository roomRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookingCompletionJob completionJob;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private RoomLocks roomLocks;
+
+    @Autowired
+    private RoomTypeInventory roomTypeInventory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${booking.write-attempts:3}")
+    private int writeAttempts;
+
+    @Value("${booking.batch.max-items:500}")
+    private int batchMaxItems;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer indexCheckTimer;
+    private Timer databaseCheckTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        indexCheckTimer = availabilityTimer("index");
+        databaseCheckTimer = availabilityTimer("database");
+    }
+
+    private Timer availabilityTimer(String source) {
+        return Timer.builder("booking.availability.check")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     /**
-     * FIXED: Auto-cancel bookings where checkout date has passed
-     * Runs every day at 2 AM
+     * FIXED: Auto-complete bookings where checkout date has passed
+     * Runs every day at 2 AM, in chunks committed one at a time (see BookingCompletionJob)
      */
     @Scheduled(cron = "0 0 2 * * *")
-    @Transactional
     public void autoCompleteExpiredBookings() {
-        LocalDate today = LocalDate.now();
-        List<Booking> expiredBookings = bookingRepository.findAll().stream()
-                .filter(b -> "BOOKED".equals(b.getStatus()))
-                .filter(b -> b.getCheckOutDate().isBefore(today))
-                .collect(Collectors.toList());
-
-        for (Booking booking : expiredBookings) {
-            booking.setStatus("COMPLETED");
-            // FIXED: Mark room as available after checkout
-            Room room = booking.getRoom();
-            if (room != null) {
-                room.setAvailable(true);
-                roomRepository.save(room);
-            }
-        }
-
-        if (!expiredBookings.isEmpty()) {
-            bookingRepository.saveAll(expiredBookings);
-            System.out.println("Auto-completed " + expiredBookings.size() + " expired bookings");
-        }
+        completionJob.run(LocalDate.now());
     }
 
     /**
      * Check if a room is available for the given date range
      * Returns true if room is available, false if there's a conflict
+     * Answered from the in-memory interval index; the database is only asked while the index is not loaded
      */
     public boolean isRoomAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut, Long excludeBookingId) {
-        List<Booking> existingBookings = bookingRepository.findByRoomId(roomId);
-
-        for (Booking booking : existingBookings) {
-            // Skip the current booking when updating
-            if (excludeBookingId != null && booking.getId().equals(excludeBookingId)) {
-                continue;
-            }
-
-            // Skip cancelled and completed bookings
-            if ("CANCELLED".equals(booking.getStatus()) || "COMPLETED".equals(booking.getStatus())) {
-                continue;
-            }
-
-            // Check for date overlap
-            LocalDate existingCheckIn = booking.getCheckInDate();
-            LocalDate existingCheckOut = booking.getCheckOutDate();
-
-            // Overlap occurs if:
-            // 1. New check-in is before existing check-out AND
-            // 2. New check-out is after existing check-in
-            boolean hasOverlap = checkIn.isBefore(existingCheckOut) && checkOut.isAfter(existingCheckIn);
-
-            if (hasOverlap) {
-                return false;
-            }
+        Timer.Sample sample = Timer.start();
+        if (availabilityIndex.isReady()) {
+            boolean available = availabilityIndex.isAvailable(roomId, checkIn, checkOut, excludeBookingId);
+            sample.stop(indexCheckTimer);
+            return available;
         }
 
-        return true;
+        // Overlap occurs if new check-in is before existing check-out AND new check-out is after existing check-in
+        boolean available = !bookingRepository.existsOverlappingBooking(roomId, checkIn, checkOut, excludeBookingId);
+        sample.stop(databaseCheckTimer);
+        return available;
     }
 
     /**
      * FIXED: Update room availability when creating booking
+     * Holds the room's lock stripe for the whole check-then-insert (see writeRoom)
      */
-    @Transactional
     public Booking createBooking(BookingRequest request) throws Exception {
+        if (request.getRoomId() == null && request.getRoomType() != null) {
+            return counted("create", () -> writeRoom(List.of(), () -> doCreateTypeBooking(request)));
+        }
+        return counted("create", () -> writeRoom(Arrays.asList(request.getRoomId()), () -> doCreateBooking(request)));
+    }
+
+    private Booking doCreateBooking(BookingRequest request) throws Exception {
+        String statusError = initialStatusError(request.getStatus());
+        if (statusError != null) {
+            throw new Exception(statusError);
+        }
+
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new Exception("User not found with id: " + request.getUserId()));
 
-        Room room = roomRepository.findById(request.getRoomId())
+        Room room = roomRepository.findByIdForBooking(request.getRoomId())
                 .orElseThrow(() -> new Exception("Room not found with id: " + request.getRoomId()));
 
-        // Validate dates
-        if (request.getCheckInDate().isAfter(request.getCheckOutDate()) ||
-                request.getCheckInDate().isEqual(request.getCheckOutDate())) {
-            throw new Exception("Check-in date must be before check-out date");
-        }
-
-        if (request.getCheckInDate().isBefore(LocalDate.now())) {
-            throw new Exception("Check-in date cannot be in the past");
-        }
+        validateNewStay(request);
 
         // Check for booking conflicts
         if (!isRoomAvailable(request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate(), null)) {
-            throw new Exception("Room is not available for the selected dates. Please choose different dates.");
+            throw new Exception(ROOM_NOT_AVAILABLE);
         }
 
         // Create booking
         Booking booking = new Booking();
         booking.setUser(user);
         booking.setRoom(room);
+        booking.setRoomType(room.getType());
         booking.setCheckInDate(request.getCheckInDate());
         booking.setCheckOutDate(request.getCheckOutDate());
-        booking.setStatus(request.getStatus() != null ? request.getStatus() : "BOOKED");
+        booking.setStatus(BookingStatus.BOOKED);
 
         // FIXED: Mark room as unavailable when booked
         room.setAvailable(false);
         roomRepository.save(room);
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.created(BookingSnapshot.of(saved)));
+        return saved;
+    }
+
+    /**
+     * Books any room of a type: only the type's per-night counters are checked and taken (see RoomTypeInventory),
+     * RoomAllocator picks the room at check-in. At commit the counters are re-checked under their row locks and
+     * the type's stays must still pack into its rooms, so some room stays free for the whole stay.
+     */
+    private Booking doCreateTypeBooking(BookingRequest request) throws Exception {
+        String statusError = initialStatusError(request.getStatus());
+        if (statusError != null) {
+            throw new Exception(statusError);
+        }
+        if (!roomTypeInventory.isEnabled()) {
+            throw new Exception("Booking by room type is not enabled, please choose a room");
+        }
+
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new Exception("User not found with id: " + request.getUserId()));
+
+        String roomType = roomTypeInventory.resolveType(request.getRoomType())
+                .orElseThrow(() -> new Exception("No rooms of type " + request.getRoomType()));
+
+        validateNewStay(request);
+
+        if (roomTypeInventory.getAvailability(roomType, request.getCheckInDate(), request.getCheckOutDate()).available() == 0) {
+            throw new Exception(TYPE_SOLD_OUT);
+        }
+
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setRoomType(roomType);
+        booking.setCheckInDate(request.getCheckInDate());
+        booking.setCheckOutDate(request.getCheckOutDate());
+        booking.setStatus(BookingStatus.BOOKED);
+
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.created(BookingSnapshot.of(saved)));
+        return saved;
+    }
+
+    private static void validateNewStay(BookingRequest request) throws Exception {
+        if (request.getCheckInDate().isAfter(request.getCheckOutDate()) ||
+                request.getCheckInDate().isEqual(request.getCheckOutDate())) {
+            throw new Exception("Check-in date must be before check-out date");
+        }
+
+        if (request.getCheckInDate().isBefore(LocalDate.now())) {
+            throw new Exception("Check-in date cannot be in the past");
+        }
+    }
+
+    /**
+     * Creates a block of bookings in one transaction, inserted with JDBC batching.
+     * Each item is checked against the availability index and the items accepted before it in the block;
+     * ALL_OR_NOTHING creates nothing unless every item passes, PARTIAL creates those that do.
+     */
+    public BookingBatchResult createBookings(BookingBatchRequest request) throws Exception {
+        List<BookingRequest> items = request.items() != null ? request.items() : List.of();
+        if (items.isEmpty()) {
+            throw new Exception("A batch needs at least one booking");
+        }
+        if (items.size() > batchMaxItems) {
+            throw new Exception("A batch holds at most " + batchMaxItems + " bookings");
+        }
+        BookingBatchRequest.Mode mode = request.mode() != null ? request.mode() : BookingBatchRequest.Mode.ALL_OR_NOTHING;
+        List<Long> roomIds = items.stream().map(BookingRequest::getRoomId).filter(Objects::nonNull).distinct().toList();
+        return counted("batch", () -> writeRoom(roomIds, () -> doCreateBookings(items, mode, roomIds)));
+    }
+
+    private BookingBatchResult doCreateBookings(List<BookingRequest> items, BookingBatchRequest.Mode mode, List<Long> roomIds) {
+        // One query each for all users and rooms of the block; the rooms are only version-locked once
+        // the block is accepted, so a rejected ALL_OR_NOTHING batch leaves every room version as it was
+        List<Long> userIds = items.stream().map(BookingRequest::getUserId).filter(Objects::nonNull).distinct().toList();
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Room> rooms = roomIds.isEmpty() ? Map.of() : roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        Map<Long, List<BookingRequest>> acceptedByRoom = new HashMap<>();
+        List<String> errors = new ArrayList<>(items.size());
+        for (BookingRequest item : items) {
+            errors.add(checkBatchItem(item, users, rooms, acceptedByRoom));
+        }
+
+        List<BookingBatchResult.Item> results = new ArrayList<>(items.size());
+        int rejected = 0;
+        for (String error : errors) {
+            if (error != null) {
+                rejected++;
+                countRejection("batch_item", error);
+            }
+        }
+        if (mode == BookingBatchRequest.Mode.ALL_OR_NOTHING && rejected > 0) {
+            for (int i = 0; i < items.size(); i++) {
+                results.add(errors.get(i) == null ? BookingBatchResult.Item.skipped(i) : BookingBatchResult.Item.rejected(i, errors.get(i)));
+            }
+            return new BookingBatchResult(mode, 0, rejected, results);
+        }
+
+        List<Booking> bookings = new ArrayList<>(items.size() - rejected);
+        for (int i = 0; i < items.size(); i++) {
+            if (errors.get(i) != null) {
+                continue;
+            }
+            BookingRequest item = items.get(i);
+            Room room = rooms.get(item.getRoomId());
+            // Same as findByIdForBooking: the version is bumped at commit even if nothing else changes
+            entityManager.lock(room, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            room.setAvailable(false);
+            bookings.add(new Booking(users.get(item.getUserId()), room, item.getCheckInDate(), item.getCheckOutDate(),
+                    BookingStatus.BOOKED));
+        }
+        // Ids come from the pooled sequence, so the inserts go out as JDBC batches on flush
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        bookingRepository.flush();
+
+        int next = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (errors.get(i) != null) {
+                results.add(BookingBatchResult.Item.rejected(i, errors.get(i)));
+                continue;
+            }
+            Booking booking = saved.get(next++);
+            eventPublisher.publishEvent(BookingChangedEvent.created(BookingSnapshot.of(booking)));
+            results.add(BookingBatchResult.Item.created(i, booking.getId()));
+        }
+        return new BookingBatchResult(mode, saved.size(), rejected, results);
+    }
+
+    /**
+     * True for failures caused by concurrent writers, the same request may succeed when retried
+     */
+    public static boolean isRetryable(Exception e) {
+        return CONCURRENT_UPDATE.equals(e.getMessage()) || RoomLocks.BUSY.equals(e.getMessage());
+    }
+
+    // Returns why the item cannot be booked, or null and records it as taken for the following items
+    private String checkBatchItem(BookingRequest item, Map<Long, User> users, Map<Long, Room> rooms,
+                                  Map<Long, List<BookingRequest>> acceptedByRoom) {
+        if (item.getUserId() == null || item.getRoomId() == null
+                || item.getCheckInDate() == null || item.getCheckOutDate() == null) {
+            return "userId, roomId, checkInDate and checkOutDate are required";
+        }
+        String statusError = initialStatusError(item.getStatus());
+        if (statusError != null) {
+            return statusError;
+        }
+        if (!users.containsKey(item.getUserId())) {
+            return "User not found with id: " + item.getUserId();
+        }
+        if (!rooms.containsKey(item.getRoomId())) {
+            return "Room not found with id: " + item.getRoomId();
+        }
+        if (!item.getCheckInDate().isBefore(item.getCheckOutDate())) {
+            return "Check-in date must be before check-out date";
+        }
+        if (item.getCheckInDate().isBefore(LocalDate.now())) {
+            return "Check-in date cannot be in the past";
+        }
+
+        List<BookingRequest> accepted = acceptedByRoom.computeIfAbsent(item.getRoomId(), id -> new ArrayList<>());
+        boolean overlapsBlock = accepted.stream().anyMatch(other ->
+                other.getCheckInDate().isBefore(item.getCheckOutDate()) && other.getCheckOutDate().isAfter(item.getCheckInDate()));
+        if (overlapsBlock || !isRoomAvailable(item.getRoomId(), item.getCheckInDate(), item.getCheckOutDate(), null)) {
+            return ROOM_NOT_AVAILABLE;
+        }
+        accepted.add(item);
+        return null;
+    }
+
+    // New bookings always start out BOOKED, a request may only say so explicitly
+    private static String initialStatusError(String requested) {
+        try {
+            BookingStatus status = BookingStatus.parse(requested);
+            return status == null || status == BookingStatus.BOOKED ? null : "A new booking must be BOOKED, not " + status;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
     }
 
     /**
      * Get all bookings
      */
+    @Transactional(readOnly = true)
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
 
+    /**
+     * Get one keyset page of bookings, optionally only those of a user or a room
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Booking> getBookingPage(Long userId, Long roomId, long afterId, int limit) {
+        // One extra row tells whether there is a next page
+        Pageable page = PageRequest.ofSize(limit + 1);
+        List<Booking> rows;
+        if (userId != null) {
+            rows = bookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, afterId, page);
+        } else if (roomId != null) {
+            rows = bookingRepository.findByRoomIdAndIdGreaterThanOrderByIdAsc(roomId, afterId, page);
+        } else {
+            rows = bookingRepository.findByIdGreaterThanOrderByIdAsc(afterId, page);
+        }
+        return PageResponse.of(rows, limit, Booking::getId);
+    }
+
+    /**
+     * Same as getBookingPage but as flat summaries without the nested user and room
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<BookingSummary> getBookingSummaryPage(Long userId, Long roomId, long afterId, int limit) {
+        Pageable page = PageRequest.ofSize(limit + 1);
+        List<BookingSummary> rows;
+        if (userId != null) {
+            rows = bookingRepository.findSummariesByUserId(userId, afterId, page);
+        } else if (roomId != null) {
+            rows = bookingRepository.findSummariesByRoomId(roomId, afterId, page);
+        } else {
+            rows = bookingRepository.findSummaries(afterId, page);
+        }
+        return PageResponse.of(rows, limit, BookingSummary::id);
+    }
+
     /**
      * Get booking by ID
      */
@@ -150,15 +433,34 @@ public class BookingService {
 
     /**
      * FIXED: Update booking with proper room availability handling
+     * Locks both the current and the requested room, a move must not race bookings on either
      */
-    @Transactional
     public Booking updateBooking(Long id, BookingRequest request) throws Exception {
+        return counted("update", () -> {
+            Long currentRoomId = bookingRepository.findRoomIdById(id)
+                    .orElseThrow(() -> new Exception("Booking not found with id " + id));
+            return writeRoom(Arrays.asList(currentRoomId, request.getRoomId()), () -> doUpdateBooking(id, request));
+        });
+    }
+
+    private Booking doUpdateBooking(Long id, BookingRequest request) throws Exception {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new Exception("Booking not found with id " + id));
 
-        String oldStatus = booking.getStatus();
+        BookingSnapshot before = BookingSnapshot.of(booking);
+        BookingStatus oldStatus = booking.getStatus();
         Room oldRoom = booking.getRoom();
 
+        BookingStatus newStatus;
+        try {
+            newStatus = BookingStatus.parse(request.getStatus());
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage());
+        }
+        if (newStatus != null && newStatus != oldStatus && !oldStatus.canTransitionTo(newStatus)) {
+            throw new Exception("Cannot change booking status from " + oldStatus + " to " + newStatus);
+        }
+
         // Update user if provided
         if (request.getUserId() != null) {
             User user = userRepository.findById(request.getUserId())
@@ -166,20 +468,30 @@ public class BookingService {
             booking.setUser(user);
         }
 
-        // Update room if provided
-        if (request.getRoomId() != null && !request.getRoomId().equals(oldRoom.getId())) {
-            Room newRoom = roomRepository.findById(request.getRoomId())
-                    .orElseThrow(() -> new Exception("Room not found with id: " + request.getRoomId()));
-
-            // Mark old room as available
-            oldRoom.setAvailable(true);
-            roomRepository.save(oldRoom);
-
-            // Mark new room as unavailable
-            newRoom.setAvailable(false);
-            roomRepository.save(newRoom);
-
-            booking.setRoom(newRoom);
+        // Bump the version of the room the booking ends up in, concurrent bookings of it must conflict
+        // (none yet for a room-type booking the allocator has not placed)
+        Long targetRoomId = request.getRoomId() != null ? request.getRoomId() : oldRoom != null ? oldRoom.getId() : null;
+        if (targetRoomId != null) {
+            Room targetRoom = roomRepository.findByIdForBooking(targetRoomId)
+                    .orElseThrow(() -> new Exception("Room not found with id: " + targetRoomId));
+
+            // Update room if provided
+            if (oldRoom == null || !targetRoomId.equals(oldRoom.getId())) {
+                Room newRoom = targetRoom;
+
+                // Mark old room as available
+                if (oldRoom != null) {
+                    oldRoom.setAvailable(true);
+                    roomRepository.save(oldRoom);
+                }
+
+                // Mark new room as unavailable
+                newRoom.setAvailable(false);
+                roomRepository.save(newRoom);
+
+                booking.setRoom(newRoom);
+                booking.setRoomType(newRoom.getType());
+            }
         }
 
         // Update dates if provided
@@ -190,28 +502,29 @@ public class BookingService {
             throw new Exception("Check-in date must be before check-out date");
         }
 
-        // Check for conflicts when updating dates or room
-        Long roomIdToCheck = request.getRoomId() != null ? request.getRoomId() : booking.getRoom().getId();
-        if (!isRoomAvailable(roomIdToCheck, newCheckIn, newCheckOut, id)) {
-            throw new Exception("Room is not available for the selected dates. Please choose different dates.");
+        // Check for conflicts when updating dates or room (the type counters check room-type bookings at commit)
+        if (targetRoomId != null && !isRoomAvailable(targetRoomId, newCheckIn, newCheckOut, id)) {
+            throw new Exception(ROOM_NOT_AVAILABLE);
         }
 
         booking.setCheckInDate(newCheckIn);
         booking.setCheckOutDate(newCheckOut);
 
         // FIXED: Handle status changes and room availability
-        if (request.getStatus() != null && !request.getStatus().equals(oldStatus)) {
-            booking.setStatus(request.getStatus());
+        if (newStatus != null && newStatus != oldStatus) {
+            booking.setStatus(newStatus);
 
-            // If booking is cancelled or completed, mark room as available
-            if ("CANCELLED".equals(request.getStatus()) || "COMPLETED".equals(request.getStatus())) {
-                Room room = booking.getRoom();
-                room.setAvailable(true);
+            // Cancelled or completed frees the room, a rebooked cancellation takes it again
+            Room room = booking.getRoom();
+            if (room != null) {
+                room.setAvailable(!newStatus.isActive());
                 roomRepository.save(room);
             }
         }
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(before, BookingSnapshot.of(saved)));
+        return saved;
     }
 
     /**
@@ -230,49 +543,146 @@ public class BookingService {
         }
 
         bookingRepository.deleteById(id);
+        eventPublisher.publishEvent(BookingChangedEvent.deleted(BookingSnapshot.of(booking)));
     }
 
     /**
      * Get bookings by user ID
      */
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByUserId(Long userId) {
-        return bookingRepository.findByUserId(userId);
+        List<Booking> bookings = bookingRepository.findByUserId(userId);
+        // Every row shares one User proxy, a single select loads it for the whole list
+        if (!bookings.isEmpty()) {
+            Hibernate.initialize(bookings.get(0).getUser());
+        }
+        return bookings;
     }
 
     /**
      * Get bookings by room ID
      */
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByRoomId(Long roomId) {
-        return bookingRepository.findByRoomId(roomId);
+        List<Booking> bookings = bookingRepository.findByRoomId(roomId);
+        // Same for the shared Room proxy, usually answered by the second-level cache
+        if (!bookings.isEmpty()) {
+            Hibernate.initialize(bookings.get(0).getRoom());
+        }
+        return bookings;
     }
 
     /**
      * Get upcoming bookings (check-in date is today or in the future)
      */
-    public List<Booking> getUpcomingBookings() {
-        return bookingRepository.findAll().stream()
-                .filter(b -> !b.getCheckInDate().isBefore(LocalDate.now()))
-                .filter(b -> !"CANCELLED".equals(b.getStatus()))
-                .toList();
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getUpcomingBookings() {
+        return bookingRepository.findUpcoming(LocalDate.now());
     }
 
     /**
      * Get active bookings (currently checked in)
      */
-    public List<Booking> getActiveBookings() {
-        LocalDate today = LocalDate.now();
-        return bookingRepository.findAll().stream()
-                .filter(b -> !b.getCheckInDate().isAfter(today) && !b.getCheckOutDate().isBefore(today))
-                .filter(b -> "BOOKED".equals(b.getStatus()))
-                .toList();
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getActiveBookings() {
+        return bookingRepository.findActive(LocalDate.now());
     }
 
     /**
      * FIXED: Get count of truly available rooms (not booked)
      */
     public long getAvailableRoomsCount() {
-        return roomRepository.findAll().stream()
-                .filter(Room::getAvailable)
-                .count();
+        return roomCatalog.getAvailableCount();
+    }
+
+    /**
+     * Runs a booking write under the lock stripes of the given rooms, in its own transaction.
+     * The stripes serialize writers of a room inside this instance; the forced Room version bump
+     * and the bookings overlap trigger catch writers on other instances. A version conflict
+     * is retried with a fresh transaction, and so is a deadlock between the advisory locks of the overlap trigger
+     * and the room-type packing check; an overlap reported by the database is a normal rejection.
+     */
+    private <T> T writeRoom(Collection<Long> roomIds, CheckedSupplier<T> write) throws Exception {
+        return roomLocks.withRoomLocks(roomIds, () -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return inTransaction(write);
+                } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                    meterRegistry.counter("booking.write.retries").increment();
+                    if (attempt >= writeAttempts) {
+                        log.warn("Booking write on rooms {} still conflicting after {} attempts", roomIds, attempt);
+                        throw new Exception(CONCURRENT_UPDATE);
+                    }
+                    // Short randomized pause so the competing instance can commit first
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * attempt);
+                } catch (DataIntegrityViolationException e) {
+                    if (hasSqlState(e, EXCLUSION_VIOLATION)) {
+                        throw new Exception(ROOM_NOT_AVAILABLE);
+                    }
+                    throw e;
+                } catch (RoomTypeSoldOutException e) {
+                    log.debug("Booking write rolled back: {}", e.getMessage());
+                    throw new Exception(TYPE_SOLD_OUT);
+                }
+            }
+        });
+    }
+
+    // Counts every failed booking write by operation and reason before handing the failure on
+    private <T> T counted(String operation, CheckedSupplier<T> write) throws Exception {
+        try {
+            return write.get();
+        } catch (Exception e) {
+            countRejection(operation, e.getMessage());
+            throw e;
+        }
+    }
+
+    private void countRejection(String operation, String message) {
+        String reason;
+        if (ROOM_NOT_AVAILABLE.equals(message)) {
+            reason = "conflict";
+        } else if (TYPE_SOLD_OUT.equals(message)) {
+            reason = "sold_out";
+        } else if (CONCURRENT_UPDATE.equals(message)) {
+            reason = "concurrent_update";
+        } else if (RoomLocks.BUSY.equals(message)) {
+            reason = "busy";
+        } else {
+            reason = "invalid";
+        }
+        meterRegistry.counter("booking.rejections", "operation", operation, "reason", reason).increment();
+    }
+
+    // Checked exceptions roll the transaction back too, then reach the caller unwrapped
+    private <T> T inTransaction(CheckedSupplier<T> work) throws Exception {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                try {
+                    return work.get();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedWrapper(e);
+                }
+            });
+        } catch (CheckedWrapper e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static boolean hasSqlState(Throwable e, String sqlState) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sqlState.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class CheckedWrapper extends RuntimeException {
+        private CheckedWrapper(Exception cause) {
+            super(cause);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.hosanna.hotelmanagement.service;
+
+/**
+ * Supplier for service code that reports failures with checked exceptions
+ */
+@FunctionalInterface
+interface CheckedSupplier<T> {
+    T get() throws Exception;
+}
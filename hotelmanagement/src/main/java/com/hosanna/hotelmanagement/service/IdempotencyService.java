@@ -0,0 +1,373 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for booking writes. The first request with a key runs and its response
+ * is stored; retries with the same key and body get the stored response back without running again.
+ *
+ * Lookups go to an in-memory LRU first, then to the idempotency_keys table (shared by all instances).
+ * Duplicates arriving while the first one still runs wait for it on this instance, or get 409 when it
+ * runs on another one. Retryable failures (busy room, concurrent update) are not stored, the client may
+ * simply try again with the same key. Keys are scoped to the authenticated user.
+ *
+ * The booking write itself records the booking id on the claim row in its own transaction, and only while
+ * the claim is still held by the same request (claim_token). So a request that outlives in-flight-timeout
+ * and loses its claim to a retry rolls back instead of booking twice, and a claim whose write committed is
+ * never run again: once stale it is answered from the booking it wrote.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 200;
+
+    // Takes the key unless another request holds it; a claim left behind by a crashed instance goes stale,
+    // unless its write committed (booking_id set), that one is only ever answered from the booking
+    private static final String CLAIM = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, claim_token, created_at)
+            VALUES (:key, :fingerprint, :token, now())
+            ON CONFLICT (idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint,
+                claim_token = EXCLUDED.claim_token, created_at = now()
+            WHERE idempotency_keys.status_code IS NULL AND idempotency_keys.booking_id IS NULL
+              AND idempotency_keys.created_at < now() - CAST(:staleAfter AS interval)
+            """;
+
+    // Takes over a stale claim whose write committed but whose response was never stored
+    private static final String CLAIM_COMMITTED = """
+            UPDATE idempotency_keys SET claim_token = :token, created_at = now()
+            WHERE idempotency_key = :key AND fingerprint = :fingerprint AND status_code IS NULL
+              AND booking_id IS NOT NULL AND created_at < now() - CAST(:staleAfter AS interval)
+            RETURNING booking_id
+            """;
+
+    // Runs inside the booking write's transaction, so the write only commits while the claim is still ours
+    private static final String MARK_WRITTEN = """
+            UPDATE idempotency_keys SET booking_id = :bookingId
+            WHERE idempotency_key = :key AND claim_token = :token AND status_code IS NULL
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE idempotency_keys SET status_code = :statusCode, content_type = :contentType, body = :body, completed_at = now()
+            WHERE idempotency_key = :key AND claim_token = :token
+            """;
+
+    private static final String FIND = """
+            SELECT fingerprint, status_code, content_type, body FROM idempotency_keys WHERE idempotency_key = :key
+            """;
+
+    /**
+     * Response of a write plus whether it may be stored (false for failures worth retrying)
+     */
+    public record Outcome(ResponseEntity<?> response, boolean retryable) {
+
+        public static Outcome of(ResponseEntity<?> response) {
+            return new Outcome(response, false);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, int statusCode, String contentType, String body) {
+    }
+
+    private record Claim(String key, String token) {
+    }
+
+    private static final ThreadLocal<Claim> currentClaim = new ThreadLocal<>();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, StoredResponse> completed;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+
+    public IdempotencyService(NamedParameterJdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.cache.max-size:10000}") long maxSize,
+                              @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${idempotency.in-flight-timeout:PT30S}") Duration inFlightTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotency.responses");
+    }
+
+    /**
+     * Runs action once per (owner, key). operation names the endpoint and request is its body,
+     * together they form the fingerprint a retry must match (422 otherwise). committed answers a
+     * retry whose first run wrote the given booking but never stored its response.
+     */
+    public ResponseEntity<?> execute(String owner, String key, String operation, Object request, Supplier<Outcome> action,
+                                     Function<Long, Outcome> committed) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        // Length prefix so no owner/key pair can collide with another one
+        String scopedKey = owner.length() + ":" + owner + ":" + key;
+        String fingerprint = fingerprint(operation, request);
+
+        StoredResponse cached = completed.getIfPresent(scopedKey);
+        if (cached != null) {
+            return replay(cached, fingerprint, "replayed");
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            return awaitDuplicate(running, fingerprint);
+        }
+        try {
+            return executeOnce(scopedKey, fingerprint, action, committed, mine);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    private ResponseEntity<?> executeOnce(String scopedKey, String fingerprint, Supplier<Outcome> action,
+                                          Function<Long, Outcome> committed, CompletableFuture<StoredResponse> mine) {
+        Claim claim = new Claim(scopedKey, UUID.randomUUID().toString());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("key", scopedKey)
+                .addValue("fingerprint", fingerprint)
+                .addValue("token", claim.token())
+                .addValue("staleAfter", inFlightTimeout.toSeconds() + " seconds");
+
+        Outcome outcome;
+        if (jdbcTemplate.update(CLAIM, params) == 1) {
+            currentClaim.set(claim);
+            try {
+                outcome = action.get();
+            } catch (RuntimeException e) {
+                release(claim);
+                throw e;
+            } finally {
+                currentClaim.remove();
+            }
+            count("executed");
+        } else {
+            List<Long> written = jdbcTemplate.queryForList(CLAIM_COMMITTED, params, Long.class);
+            if (written.isEmpty()) {
+                StoredResponse stored = find(scopedKey);
+                mine.complete(stored);
+                if (stored == null || stored.statusCode() == 0) {
+                    return inProgress();
+                }
+                completed.put(scopedKey, stored);
+                return replay(stored, fingerprint, "replayed");
+            }
+            outcome = committed.apply(written.get(0));
+            count("recovered");
+        }
+
+        StoredResponse stored = store(fingerprint, outcome.response());
+        if (outcome.retryable() || outcome.response().getStatusCode().is5xxServerError()) {
+            // Waiting duplicates share this answer, later retries run again
+            release(claim);
+        } else {
+            int updated = jdbcTemplate.update(COMPLETE, new MapSqlParameterSource()
+                    .addValue("key", scopedKey)
+                    .addValue("token", claim.token())
+                    .addValue("statusCode", stored.statusCode())
+                    .addValue("contentType", stored.contentType())
+                    .addValue("body", stored.body()));
+            if (updated == 0) {
+                // Ran past in-flight-timeout and a retry took the claim over; that one's answer counts
+                log.warn("Idempotency claim for {} was taken over while the request ran", scopedKey);
+                mine.complete(null);
+                return inProgress();
+            }
+            completed.put(scopedKey, stored);
+        }
+        mine.complete(stored);
+        return outcome.response();
+    }
+
+    // Ties a booking written under a claim to that claim, in the write's own transaction
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        Claim claim = currentClaim.get();
+        if (claim == null || event.after() == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        ClaimWrite write = (ClaimWrite) TransactionSynchronizationManager.getResource(claim);
+        if (write == null) {
+            write = new ClaimWrite(claim);
+            TransactionSynchronizationManager.bindResource(claim, write);
+            TransactionSynchronizationManager.registerSynchronization(write);
+        }
+        write.bookingId = event.after().id();
+    }
+
+    private ResponseEntity<?> inProgress() {
+        count("in_progress");
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("A request with this " + HEADER + " is still being processed. Please retry later.");
+    }
+
+    // A duplicate of a request still running on this instance gets the same response once it is done
+    private ResponseEntity<?> awaitDuplicate(CompletableFuture<StoredResponse> running, String fingerprint) {
+        try {
+            StoredResponse stored = running.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (stored != null && stored.statusCode() != 0) {
+                return replay(stored, fingerprint, "coalesced");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // fall through to 409, the client retries with the same key
+        }
+        return inProgress();
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String fingerprint, String outcome) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            count("mismatch");
+            return ResponseEntity.unprocessableEntity()
+                    .body(HEADER + " was already used for a different request");
+        }
+        count(outcome);
+        return ResponseEntity.status(stored.statusCode())
+                .contentType(MediaType.parseMediaType(stored.contentType()))
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private StoredResponse find(String scopedKey) {
+        List<StoredResponse> rows = jdbcTemplate.query(FIND, new MapSqlParameterSource("key", scopedKey),
+                (rs, rowNum) -> new StoredResponse(rs.getString("fingerprint"), rs.getInt("status_code"),
+                        rs.getString("content_type"), rs.getString("body")));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Frees the key for a retry, unless a write under it committed: that one must never run again
+    private void release(Claim claim) {
+        jdbcTemplate.update("""
+                        DELETE FROM idempotency_keys
+                        WHERE idempotency_key = :key AND claim_token = :token AND status_code IS NULL AND booking_id IS NULL
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("key", claim.key())
+                        .addValue("token", claim.token()));
+    }
+
+    // Plain-string bodies (the error messages) stay text, everything else is stored as the JSON we sent
+    private StoredResponse store(String fingerprint, ResponseEntity<?> response) {
+        Object body = response.getBody();
+        try {
+            if (body == null || body instanceof String) {
+                return new StoredResponse(fingerprint, response.getStatusCode().value(),
+                        MediaType.TEXT_PLAIN_VALUE, body == null ? "" : (String) body);
+            }
+            return new StoredResponse(fingerprint, response.getStatusCode().value(),
+                    MediaType.APPLICATION_JSON_VALUE, objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for replay", e);
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    // Records the booking on the claim just before the write commits, or rolls the write back when the claim is gone
+    private final class ClaimWrite implements TransactionSynchronization {
+
+        final Claim claim;
+        Long bookingId;
+
+        ClaimWrite(Claim claim) {
+            this.claim = claim;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            int marked = jdbcTemplate.update(MARK_WRITTEN, new MapSqlParameterSource()
+                    .addValue("key", claim.key())
+                    .addValue("token", claim.token())
+                    .addValue("bookingId", bookingId));
+            if (marked == 0) {
+                throw new IllegalStateException("Idempotency claim was taken over, the write is rolled back");
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(claim);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    // Keys are only honoured for the ttl, drop older ones
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:PT1H}",
+            initialDelayString = "${idempotency.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM idempotency_keys WHERE created_at < now() - CAST(:ttl AS interval)",
+                new MapSqlParameterSource("ttl", ttl.toSeconds() + " seconds"));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
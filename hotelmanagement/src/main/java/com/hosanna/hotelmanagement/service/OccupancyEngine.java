@@ -0,0 +1,234 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.event.RoomChangedEvent;
+import com.hosanna.hotelmanagement.event.RoomSnapshot;
+import com.hosanna.hotelmanagement.repository.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps one bitset per room over a rolling horizon of nights starting today
+ * (bit n set = night baseDay + n is taken by an active booking).
+ * A multi-room search builds the mask of the requested nights once and ANDs it
+ * against every room's words, so it never goes back to the database.
+ * Rows are rebuilt from RoomAvailabilityIndex after each committed booking change;
+ * searches reaching past the horizon are answered by the index directly.
+ */
+@Component
+public class OccupancyEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyEngine.class);
+
+    private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final int horizonWords;
+
+    private volatile Grid grid;
+
+    public OccupancyEngine(RoomRepository roomRepository,
+                           RoomAvailabilityIndex availabilityIndex,
+                           @Value("${occupancy.horizon-days:730}") int horizonDays) {
+        this.roomRepository = roomRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.horizonWords = Math.max(1, (horizonDays + 63) / 64);
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        if (!availabilityIndex.isReady()) {
+            return;
+        }
+        try {
+            List<RoomSnapshot> rooms = roomRepository.findAll().stream().map(RoomSnapshot::of).toList();
+            grid = build(LocalDate.now(), rooms);
+            log.info("Occupancy engine loaded {} rooms over {} nights", rooms.size(), grid.nights);
+        } catch (RuntimeException e) {
+            log.warn("Could not load occupancy engine, room searches will use the database", e);
+        }
+    }
+
+    /**
+     * True once rooms and bookings have been loaded
+     */
+    public boolean isReady() {
+        return grid != null;
+    }
+
+    /**
+     * Rooms with no active booking overlapping [checkIn, checkOut), optionally filtered by type and max price
+     */
+    public List<RoomSnapshot> findAvailableRooms(LocalDate checkIn, LocalDate checkOut, String type, Double maxPrice) {
+        Grid g = grid;
+        long from = checkIn.toEpochDay() - g.baseDay;
+        long to = checkOut.toEpochDay() - g.baseDay;
+        boolean inHorizon = from >= 0 && to <= g.nights;
+
+        int firstWord = 0;
+        long[] mask = null;
+        if (inHorizon) {
+            firstWord = (int) (from >>> 6);
+            mask = rangeMask(from, to);
+        }
+
+        List<RoomSnapshot> result = new ArrayList<>();
+        for (int row = 0; row < g.rooms.length; row++) {
+            RoomSnapshot room = g.rooms[row];
+            if (type != null && !type.equalsIgnoreCase(room.type())) {
+                continue;
+            }
+            if (maxPrice != null && (room.price() == null || room.price() > maxPrice)) {
+                continue;
+            }
+            boolean free = inHorizon
+                    ? isFree(g, row, firstWord, mask)
+                    : availabilityIndex.isAvailable(room.id(), checkIn, checkOut, null);
+            if (free) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+
+    // Move the horizon forward once a day
+    @Scheduled(cron = "0 5 0 * * *")
+    public synchronized void roll() {
+        if (grid != null) {
+            grid = build(LocalDate.now(), Arrays.asList(grid.rooms));
+        }
+    }
+
+    // Runs after RoomAvailabilityIndex (default order is lowest precedence), so the index is already up to date
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingChanged(BookingChangedEvent event) {
+        Grid g = grid;
+        if (g == null) {
+            return;
+        }
+        // Room-type bookings without a room yet hold no row
+        if (event.before() != null && event.before().roomId() != null) {
+            refreshRow(g, event.before().roomId());
+        }
+        if (event.after() != null && event.after().roomId() != null
+                && (event.before() == null || !event.after().roomId().equals(event.before().roomId()))) {
+            refreshRow(g, event.after().roomId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRoomChanged(RoomChangedEvent event) {
+        Grid g = grid;
+        if (g == null) {
+            return;
+        }
+        List<RoomSnapshot> rooms = new ArrayList<>(g.rooms.length + 1);
+        for (RoomSnapshot room : g.rooms) {
+            if (!room.id().equals(event.roomId())) {
+                rooms.add(room);
+            }
+        }
+        if (event.after() != null) {
+            rooms.add(event.after());
+        }
+        grid = build(LocalDate.ofEpochDay(g.baseDay), rooms);
+    }
+
+    private Grid build(LocalDate baseDate, List<RoomSnapshot> rooms) {
+        Grid g = new Grid(baseDate.toEpochDay(), horizonWords, rooms.toArray(new RoomSnapshot[0]));
+        for (int row = 0; row < g.rooms.length; row++) {
+            fillRow(g, row);
+        }
+        return g;
+    }
+
+    private void refreshRow(Grid g, Long roomId) {
+        Integer row = g.rowOf.get(roomId);
+        if (row != null) {
+            fillRow(g, row);
+        }
+    }
+
+    // Only called by the single writer holding the monitor, readers see each word atomically
+    private void fillRow(Grid g, int row) {
+        long[] words = new long[g.words];
+        for (BookingSnapshot range : availabilityIndex.activeRanges(g.rooms[row].id())) {
+            long from = Math.max(0, range.checkInDate().toEpochDay() - g.baseDay);
+            long to = Math.min(g.nights, range.checkOutDate().toEpochDay() - g.baseDay);
+            if (from >= to) {
+                continue;
+            }
+            long[] mask = rangeMask(from, to);
+            int firstWord = (int) (from >>> 6);
+            for (int i = 0; i < mask.length; i++) {
+                words[firstWord + i] |= mask[i];
+            }
+        }
+        int offset = row * g.words;
+        for (int w = 0; w < g.words; w++) {
+            g.bits.set(offset + w, words[w]);
+        }
+    }
+
+    private static boolean isFree(Grid g, int row, int firstWord, long[] mask) {
+        int offset = row * g.words + firstWord;
+        for (int i = 0; i < mask.length; i++) {
+            if ((g.bits.get(offset + i) & mask[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Word masks covering nights [from, to) relative to the horizon start, starting at word from / 64
+     */
+    private static long[] rangeMask(long from, long to) {
+        int firstWord = (int) (from >>> 6);
+        int lastWord = (int) ((to - 1) >>> 6);
+        long[] mask = new long[lastWord - firstWord + 1];
+        for (int w = firstWord; w <= lastWord; w++) {
+            long wordStart = (long) w << 6;
+            int lo = (int) (Math.max(from, wordStart) - wordStart);
+            int hi = (int) (Math.min(to, wordStart + 64) - wordStart);
+            long upper = hi == 64 ? -1L : (1L << hi) - 1;
+            mask[w - firstWord] = upper & (-1L << lo);
+        }
+        return mask;
+    }
+
+    private static final class Grid {
+        private final long baseDay;
+        private final int words;
+        private final int nights;
+        private final RoomSnapshot[] rooms;
+        private final Map<Long, Integer> rowOf;
+        // rooms.length rows of words longs each
+        private final AtomicLongArray bits;
+
+        private Grid(long baseDay, int words, RoomSnapshot[] rooms) {
+            this.baseDay = baseDay;
+            this.words = words;
+            this.nights = words * 64;
+            this.rooms = rooms;
+            this.rowOf = new HashMap<>(rooms.length * 2);
+            for (int row = 0; row < rooms.length; row++) {
+                rowOf.put(rooms[row].id(), row);
+            }
+            this.bits = new AtomicLongArray(rooms.length * words);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hosanna.hotelmanagement.service;
+
+/**
+ * Thrown when the password hashing pool is saturated; controllers answer 429 Too Many Requests
+ */
+public class PasswordHashingBusyException extends Exception {
+
+    public PasswordHashingBusyException() {
+        super("Too many login attempts in progress. Please try again shortly.");
+    }
+}
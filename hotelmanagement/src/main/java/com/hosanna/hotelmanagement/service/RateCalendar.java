@@ -0,0 +1,135 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.event.RatesChangedEvent;
+import com.hosanna.hotelmanagement.model.RoomRate;
+import com.hosanna.hotelmanagement.repository.RoomRateRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of room_rates: per room type, one long[] of cents indexed by epoch day.
+ * Quotes read an immutable snapshot without locking; a bulk update builds new arrays for the
+ * types it changed once it has committed and swaps the snapshot, so readers never wait on it
+ * and never see half an update. Rates written on other instances show up at the next reload.
+ */
+@Component
+public class RateCalendar {
+
+    // Marks nights without a rate, rates are never negative
+    public static final long NO_RATE = -1;
+
+    private final RoomRateRepository rateRepository;
+    private final AtomicReference<Map<String, Rates>> snapshot = new AtomicReference<>(Map.of());
+
+    public RateCalendar(RoomRateRepository rateRepository) {
+        this.rateRepository = rateRepository;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${rates.reload-interval:PT5M}", initialDelayString = "${rates.reload-interval:PT5M}")
+    public synchronized void load() {
+        Map<String, List<RoomRate>> byType = rateRepository.findAll().stream()
+                .collect(Collectors.groupingBy(rate -> key(rate.getRoomType())));
+        Map<String, Rates> rates = new HashMap<>();
+        byType.forEach((type, rows) -> {
+            Map<LocalDate, BigDecimal> nights = new HashMap<>();
+            rows.forEach(row -> nights.put(row.getStayDate(), row.getRate()));
+            rates.put(type, Rates.EMPTY.with(nights));
+        });
+        snapshot.set(Map.copyOf(rates));
+    }
+
+    /**
+     * Rates of every type at this moment; one quote prices all its items against the same snapshot
+     */
+    public Map<String, Rates> snapshot() {
+        return snapshot.get();
+    }
+
+    public Rates forType(String roomType) {
+        return forType(snapshot.get(), roomType);
+    }
+
+    public static Rates forType(Map<String, Rates> snapshot, String roomType) {
+        return snapshot.getOrDefault(key(roomType), Rates.EMPTY);
+    }
+
+    // Copy-on-write: only the changed type's array is rebuilt, the others are shared with the previous snapshot
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRatesChanged(RatesChangedEvent event) {
+        Map<String, Rates> rates = new HashMap<>(snapshot.get());
+        String type = key(event.roomType());
+        rates.put(type, rates.getOrDefault(type, Rates.EMPTY).with(event.rates()));
+        snapshot.set(Map.copyOf(rates));
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static String key(String roomType) {
+        return roomType.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable rates of one type: cents[i] is the rate of the night firstDay + i, or NO_RATE
+     */
+    public static final class Rates {
+
+        static final Rates EMPTY = new Rates(0, new long[0]);
+
+        private final long firstDay;
+        private final long[] cents;
+
+        private Rates(long firstDay, long[] cents) {
+            this.firstDay = firstDay;
+            this.cents = cents;
+        }
+
+        /**
+         * Rate of the night in cents, fallback when it has none
+         */
+        public long centsAt(long epochDay, long fallback) {
+            long i = epochDay - firstDay;
+            if (i < 0 || i >= cents.length) {
+                return fallback;
+            }
+            long rate = cents[(int) i];
+            return rate == NO_RATE ? fallback : rate;
+        }
+
+        // New instance covering both the current nights and the changed ones
+        Rates with(Map<LocalDate, BigDecimal> changes) {
+            if (changes.isEmpty()) {
+                return this;
+            }
+            long from = cents.length == 0 ? Long.MAX_VALUE : firstDay;
+            long to = cents.length == 0 ? Long.MIN_VALUE : firstDay + cents.length - 1;
+            for (LocalDate night : changes.keySet()) {
+                from = Math.min(from, night.toEpochDay());
+                to = Math.max(to, night.toEpochDay());
+            }
+            long[] merged = new long[Math.toIntExact(to - from + 1)];
+            Arrays.fill(merged, NO_RATE);
+            if (cents.length > 0) {
+                System.arraycopy(cents, 0, merged, (int) (firstDay - from), cents.length);
+            }
+            for (Map.Entry<LocalDate, BigDecimal> change : changes.entrySet()) {
+                merged[(int) (change.getKey().toEpochDay() - from)] = toCents(change.getValue());
+            }
+            return new Rates(from, merged);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.NightlyRates;
+import com.hosanna.hotelmanagement.dto.QuoteRequest;
+import com.hosanna.hotelmanagement.dto.QuoteResult;
+import com.hosanna.hotelmanagement.dto.RateUpdateRequest;
+import com.hosanna.hotelmanagement.event.RatesChangedEvent;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.RoomRate;
+import com.hosanna.hotelmanagement.repository.RoomRateRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Nightly rates per room type and the quotes priced from them.
+ * A night is priced at its calendar rate, or at the room's own price when the calendar has none.
+ * All amounts are handled as whole cents (long) and returned as BigDecimal, so totals are exact.
+ */
+@Service
+@Timed("rate.service")
+public class RateService {
+
+    // numeric(10, 2)
+    private static final BigDecimal MAX_RATE = new BigDecimal("99999999.99");
+
+    private final RoomRateRepository rateRepository;
+    private final RateCalendar rateCalendar;
+    private final RoomCatalog roomCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxNightsPerUpdate;
+    private final long maxRangeDays;
+    private final int quoteMaxItems;
+    private final int maxStayNights;
+    private final int parallelThreshold;
+
+    public RateService(RoomRateRepository rateRepository,
+                       RateCalendar rateCalendar,
+                       RoomCatalog roomCatalog,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${rates.max-nights-per-update:20000}") int maxNightsPerUpdate,
+                       @Value("${rates.max-range-days:1096}") long maxRangeDays,
+                       @Value("${quotes.max-items:1000}") int quoteMaxItems,
+                       @Value("${quotes.max-stay-nights:366}") int maxStayNights,
+                       @Value("${quotes.parallel-threshold:64}") int parallelThreshold) {
+        this.rateRepository = rateRepository;
+        this.rateCalendar = rateCalendar;
+        this.roomCatalog = roomCatalog;
+        this.eventPublisher = eventPublisher;
+        this.maxNightsPerUpdate = maxNightsPerUpdate;
+        this.maxRangeDays = maxRangeDays;
+        this.quoteMaxItems = quoteMaxItems;
+        this.maxStayNights = maxStayNights;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Writes the rates of every item in one transaction and returns the number of nights set.
+     * The in-memory calendar switches to the new rates once the transaction has committed.
+     */
+    @Transactional
+    public int updateRates(RateUpdateRequest request) throws Exception {
+        List<RateUpdateRequest.Item> items = request.items() != null ? request.items() : List.of();
+        if (items.isEmpty()) {
+            throw new Exception("A rate update needs at least one item");
+        }
+
+        // Night -> rate per room type (spelled as in the catalog), later items overwrite earlier ones
+        Map<String, TreeMap<LocalDate, BigDecimal>> changes = new LinkedHashMap<>();
+        long nights = 0;
+        for (RateUpdateRequest.Item item : items) {
+            String roomType = checkRateItem(item);
+            BigDecimal rate = item.rate().setScale(2);
+            TreeMap<LocalDate, BigDecimal> typeChanges = changes.computeIfAbsent(roomType, type -> new TreeMap<>());
+            for (LocalDate night = item.from(); !night.isAfter(item.to()); night = night.plusDays(1)) {
+                if (item.daysOfWeek() == null || item.daysOfWeek().isEmpty() || item.daysOfWeek().contains(night.getDayOfWeek())) {
+                    typeChanges.put(night, rate);
+                    nights++;
+                }
+            }
+            if (nights > maxNightsPerUpdate) {
+                throw new Exception("A rate update sets at most " + maxNightsPerUpdate + " nights");
+            }
+        }
+
+        int written = 0;
+        for (Map.Entry<String, TreeMap<LocalDate, BigDecimal>> entry : changes.entrySet()) {
+            TreeMap<LocalDate, BigDecimal> typeChanges = entry.getValue();
+            if (typeChanges.isEmpty()) {
+                continue;
+            }
+            // One range read for the rows that exist already (updated through dirty checking), the rest are inserted
+            Map<LocalDate, RoomRate> existing = rateRepository.findRange(entry.getKey(), typeChanges.firstKey(), typeChanges.lastKey())
+                    .stream().collect(Collectors.toMap(RoomRate::getStayDate, Function.identity()));
+            List<RoomRate> added = new ArrayList<>();
+            typeChanges.forEach((night, rate) -> {
+                RoomRate row = existing.get(night);
+                if (row != null) {
+                    row.setRate(rate);
+                } else {
+                    added.add(new RoomRate(entry.getKey(), night, rate));
+                }
+            });
+            rateRepository.saveAll(added);
+            written += typeChanges.size();
+            eventPublisher.publishEvent(new RatesChangedEvent(entry.getKey(), Map.copyOf(typeChanges)));
+        }
+        return written;
+    }
+
+    // Returns the room type as spelled by its rooms, or throws with the reason the item is refused
+    private String checkRateItem(RateUpdateRequest.Item item) throws Exception {
+        if (item.roomType() == null || item.roomType().isBlank()) {
+            throw new Exception("Room type is required");
+        }
+        Optional<String> roomType = roomCatalog.getAllRooms().stream()
+                .map(Room::getType)
+                .filter(type -> type.equalsIgnoreCase(item.roomType().trim()))
+                .findFirst();
+        if (roomType.isEmpty()) {
+            throw new Exception("No rooms of type " + item.roomType());
+        }
+        if (item.from() == null || item.to() == null) {
+            throw new Exception("from and to are required");
+        }
+        if (item.from().isAfter(item.to())) {
+            throw new Exception("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(item.from(), item.to()) >= maxRangeDays) {
+            throw new Exception("Range is limited to " + maxRangeDays + " days");
+        }
+        if (item.rate() == null || item.rate().signum() < 0) {
+            throw new Exception("Rate must be zero or more");
+        }
+        if (item.rate().stripTrailingZeros().scale() > 2) {
+            throw new Exception("Rate has more than two decimals: " + item.rate());
+        }
+        if (item.rate().compareTo(MAX_RATE) > 0) {
+            throw new Exception("Rate is limited to " + MAX_RATE);
+        }
+        return roomType.get();
+    }
+
+    /**
+     * Calendar of a room type for the nights from..to, answered from memory
+     */
+    public NightlyRates getRates(String roomType, LocalDate from, LocalDate to) throws Exception {
+        if (from.isAfter(to)) {
+            throw new Exception("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new Exception("Range is limited to " + maxRangeDays + " days");
+        }
+        RateCalendar.Rates rates = rateCalendar.forType(roomType);
+        List<NightlyRates.Night> nights = new ArrayList<>();
+        for (LocalDate night = from; !night.isAfter(to); night = night.plusDays(1)) {
+            long cents = rates.centsAt(night.toEpochDay(), RateCalendar.NO_RATE);
+            nights.add(new NightlyRates.Night(night, cents == RateCalendar.NO_RATE ? null : BigDecimal.valueOf(cents, 2)));
+        }
+        return new NightlyRates(roomType, from, to, nights);
+    }
+
+    /**
+     * Prices every item of the request, one entry per item in request order. Items are independent
+     * in-memory computations, larger requests are spread over the common fork-join pool.
+     */
+    public QuoteResult quote(QuoteRequest request) throws Exception {
+        List<QuoteRequest.Item> items = request.items() != null ? request.items() : List.of();
+        if (items.isEmpty()) {
+            throw new Exception("A quote needs at least one item");
+        }
+        if (items.size() > quoteMaxItems) {
+            throw new Exception("A quote holds at most " + quoteMaxItems + " items");
+        }
+
+        // Every item sees the same rates and rooms, even while a rate update lands
+        Map<String, RateCalendar.Rates> rates = rateCalendar.snapshot();
+        Map<Long, Room> rooms = roomCatalog.getRoomsById();
+        Map<String, Long> lowestPriceByType = new HashMap<>();
+        for (Room room : rooms.values()) {
+            if (room.getPrice() != null) {
+                lowestPriceByType.merge(room.getType().toLowerCase(Locale.ROOT), cents(room.getPrice()), Math::min);
+            }
+        }
+
+        IntStream indexes = IntStream.range(0, items.size());
+        if (items.size() >= parallelThreshold) {
+            indexes = indexes.parallel();
+        }
+        List<QuoteResult.Item> results = indexes
+                .mapToObj(i -> price(i, items.get(i), rates, rooms, lowestPriceByType, request.nightly()))
+                .toList();
+        int rejected = (int) results.stream().filter(item -> item.error() != null).count();
+        return new QuoteResult(results.size() - rejected, rejected, results);
+    }
+
+    private QuoteResult.Item price(int index, QuoteRequest.Item item, Map<String, RateCalendar.Rates> rates,
+                                   Map<Long, Room> rooms, Map<String, Long> lowestPriceByType, boolean nightly) {
+        if (item == null || item.checkInDate() == null || item.checkOutDate() == null) {
+            return QuoteResult.Item.rejected(index, "checkInDate and checkOutDate are required");
+        }
+        if (!item.checkOutDate().isAfter(item.checkInDate())) {
+            return QuoteResult.Item.rejected(index, "Check-out date must be after check-in date");
+        }
+        long nights = ChronoUnit.DAYS.between(item.checkInDate(), item.checkOutDate());
+        if (nights > maxStayNights) {
+            return QuoteResult.Item.rejected(index, "A stay is limited to " + maxStayNights + " nights");
+        }
+
+        String roomType;
+        long basePrice;
+        if (item.roomId() != null) {
+            Room room = rooms.get(item.roomId());
+            if (room == null || room.getPrice() == null) {
+                return QuoteResult.Item.rejected(index, "Room not found with id " + item.roomId());
+            }
+            roomType = room.getType();
+            basePrice = cents(room.getPrice());
+        } else if (item.roomType() != null) {
+            Long lowest = lowestPriceByType.get(item.roomType().toLowerCase(Locale.ROOT));
+            if (lowest == null) {
+                return QuoteResult.Item.rejected(index, "No rooms of type " + item.roomType());
+            }
+            roomType = item.roomType();
+            basePrice = lowest;
+        } else {
+            return QuoteResult.Item.rejected(index, "roomId or roomType is required");
+        }
+
+        RateCalendar.Rates typeRates = RateCalendar.forType(rates, roomType);
+        long firstNight = item.checkInDate().toEpochDay();
+        long total = 0;
+        List<NightlyRates.Night> perNight = nightly ? new ArrayList<>((int) nights) : null;
+        for (long night = firstNight; night < firstNight + nights; night++) {
+            long rate = typeRates.centsAt(night, basePrice);
+            total += rate;
+            if (nightly) {
+                perNight.add(new NightlyRates.Night(LocalDate.ofEpochDay(night), BigDecimal.valueOf(rate, 2)));
+            }
+        }
+        BigDecimal totalAmount = BigDecimal.valueOf(total, 2);
+        return QuoteResult.Item.quoted(index, item.roomId(), roomType, item.checkInDate(), item.checkOutDate(),
+                (int) nights, totalAmount, totalAmount.divide(BigDecimal.valueOf(nights), 2, RoundingMode.HALF_EVEN), perNight);
+    }
+
+    // Room.price is a double, rounded to the cent once here
+    private static long cents(Double price) {
+        return RateCalendar.toCents(BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,122 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.OccupancyReport;
+import com.hosanna.hotelmanagement.dto.RevenueReport;
+import com.hosanna.hotelmanagement.model.Room;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Occupancy and revenue reports answered from booking_daily_rollup (see BookingRollups),
+ * at most one row per night and room type whatever the number of bookings.
+ */
+@Service
+@Timed("report.service")
+public class ReportService {
+
+    private static final String SOLD_PER_NIGHT = """
+            SELECT stay_date, SUM(rooms_sold) FROM booking_daily_rollup
+            WHERE stay_date BETWEEN :from AND :to AND (CAST(:type AS varchar) IS NULL OR lower(room_type) = lower(:type))
+            GROUP BY stay_date
+            """;
+
+    private static final String SOLD_PER_TYPE = """
+            SELECT room_type, SUM(rooms_sold), SUM(revenue) FROM booking_daily_rollup
+            WHERE stay_date BETWEEN :from AND :to AND (CAST(:type AS varchar) IS NULL OR lower(room_type) = lower(:type))
+            GROUP BY room_type
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RoomCatalog roomCatalog;
+    private final BookingRollups bookingRollups;
+
+    public ReportService(NamedParameterJdbcTemplate jdbcTemplate, RoomCatalog roomCatalog, BookingRollups bookingRollups) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roomCatalog = roomCatalog;
+        this.bookingRollups = bookingRollups;
+    }
+
+    @Transactional(readOnly = true)
+    public OccupancyReport getOccupancy(LocalDate from, LocalDate to, String type) {
+        Map<LocalDate, Long> sold = new HashMap<>();
+        jdbcTemplate.query(SOLD_PER_NIGHT, params(from, to, type),
+                rs -> { sold.put(rs.getDate(1).toLocalDate(), rs.getLong(2)); });
+
+        long inventory = roomsByType(type).values().stream().mapToLong(Long::longValue).sum();
+        List<OccupancyReport.Day> days = new ArrayList<>();
+        long totalSold = 0;
+        for (LocalDate night = from; !night.isAfter(to); night = night.plusDays(1)) {
+            long roomsSold = sold.getOrDefault(night, 0L);
+            totalSold += roomsSold;
+            days.add(new OccupancyReport.Day(night, roomsSold, inventory, OccupancyReport.rate(roomsSold, inventory)));
+        }
+        long totalAvailable = inventory * days.size();
+        return new OccupancyReport(from, to, type, totalSold, totalAvailable,
+                OccupancyReport.rate(totalSold, totalAvailable), days);
+    }
+
+    @Transactional(readOnly = true)
+    public RevenueReport getRevenue(LocalDate from, LocalDate to, String type) {
+        long nights = ChronoUnit.DAYS.between(from, to) + 1;
+        Map<String, Long> inventory = roomsByType(type);
+
+        Map<String, RevenueReport.Line> lines = new TreeMap<>();
+        jdbcTemplate.query(SOLD_PER_TYPE, params(from, to, type), rs -> {
+            String roomType = rs.getString(1);
+            lines.put(roomType, RevenueReport.Line.of(roomType, rs.getLong(2),
+                    inventory.getOrDefault(roomType, 0L) * nights, rs.getDouble(3)));
+        });
+        // Types with rooms but no sales in the range still show up
+        inventory.forEach((roomType, rooms) ->
+                lines.putIfAbsent(roomType, RevenueReport.Line.of(roomType, 0, rooms * nights, 0)));
+
+        long sold = 0;
+        long available = 0;
+        double revenue = 0;
+        for (RevenueReport.Line line : lines.values()) {
+            sold += line.roomNightsSold();
+            available += line.roomNightsAvailable();
+            revenue += line.revenue();
+        }
+        RevenueReport.Line total = RevenueReport.Line.of(null, sold, available, revenue);
+        return new RevenueReport(from, to, type, sold, available, revenue, total.adr(), total.revpar(),
+                total.occupancyRate(), List.copyOf(lines.values()));
+    }
+
+    /**
+     * Recomputes the rollups from the bookings table
+     */
+    public void rebuildRollups() {
+        bookingRollups.rebuild();
+    }
+
+    // Current inventory per room type, from the in-memory catalog
+    private Map<String, Long> roomsByType(String type) {
+        Map<String, Long> rooms = new TreeMap<>();
+        for (Room room : roomCatalog.getAllRooms()) {
+            if (type == null || type.equalsIgnoreCase(room.getType())) {
+                rooms.merge(room.getType(), 1L, Long::sum);
+            }
+        }
+        return rooms;
+    }
+
+    private static MapSqlParameterSource params(LocalDate from, LocalDate to, String type) {
+        return new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to))
+                .addValue("type", type);
+    }
+}
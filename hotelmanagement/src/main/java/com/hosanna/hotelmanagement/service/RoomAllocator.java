@@ -0,0 +1,156 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.BookingRequest;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gives room-type bookings their room once the guest arrives. Deciding that late keeps every room's
+ * calendar open until then: the type counters only promise a free room per night, and the later
+ * the rooms are fixed the more stays are known when packing them.
+ *
+ * A stay gets the room the type's packing gives it (see RoomTypePacking), so the stays still waiting
+ * keep fitting; failing that, the free room of its type that fits tightest (shortest gap to the previous
+ * departure, then to the next arrival). The move itself is a regular booking update, so it takes the
+ * room lock, re-checks the room and the type's packing, and publishes the change.
+ */
+@Component
+public class RoomAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomAllocator.class);
+
+    // Past this a gap counts as open-ended
+    private static final long OPEN_GAP = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final RoomCatalog roomCatalog;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomTypeInventory roomTypeInventory;
+    private final Counter assignedCounter;
+    private final Counter failedCounter;
+
+    public RoomAllocator(BookingRepository bookingRepository,
+                         BookingService bookingService,
+                         RoomCatalog roomCatalog,
+                         RoomAvailabilityIndex availabilityIndex,
+                         RoomTypeInventory roomTypeInventory,
+                         MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.roomCatalog = roomCatalog;
+        this.availabilityIndex = availabilityIndex;
+        this.roomTypeInventory = roomTypeInventory;
+        this.assignedCounter = Counter.builder("inventory.allocation.assigned")
+                .description("Room-type bookings given a room")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("inventory.allocation.failed")
+                .description("Room-type bookings no room of their type could be found for")
+                .register(meterRegistry);
+    }
+
+    // Rooms for the day's arrivals are fixed in the morning, before the first guests check in
+    @Scheduled(cron = "${inventory.allocation.cron:0 0 6 * * *}")
+    public void allocateTodaysArrivals() {
+        allocate(LocalDate.now());
+    }
+
+    /**
+     * Assigns rooms to every room-type booking arriving on or before date that has none yet,
+     * returns how many were assigned
+     */
+    public int allocate(LocalDate date) {
+        int assigned = 0;
+        for (BookingSnapshot booking : bookingRepository.findUnassignedArrivals(date)) {
+            try {
+                assign(booking);
+                assigned++;
+            } catch (Exception e) {
+                log.warn("No room assigned to booking {} ({}): {}", booking.id(), booking.roomType(), e.getMessage());
+            }
+        }
+        if (assigned > 0) {
+            log.info("Assigned rooms to {} room-type bookings arriving by {}", assigned, date);
+        }
+        return assigned;
+    }
+
+    /**
+     * Checks a guest in: a room-type booking gets its room now, a booking with a room is returned as is
+     */
+    public Booking checkIn(Long bookingId) throws Exception {
+        Booking booking = bookingService.getBookingById(bookingId)
+                .orElseThrow(() -> new Exception("Booking not found with id " + bookingId));
+        if (booking.getStatus() != BookingStatus.BOOKED) {
+            throw new Exception("Only BOOKED bookings can be checked in, this one is " + booking.getStatus());
+        }
+        if (booking.getCheckInDate().isAfter(LocalDate.now())) {
+            throw new Exception("Check-in opens on " + booking.getCheckInDate());
+        }
+        if (booking.getRoom() != null) {
+            return booking;
+        }
+        return assign(BookingSnapshot.of(booking));
+    }
+
+    // Tries the packed room first, then the other candidates best fit first; one taken in the meantime is skipped
+    private Booking assign(BookingSnapshot booking) throws Exception {
+        Long packed = roomTypeInventory.packing(booking.roomType()).rooms().get(booking.id());
+        List<Room> candidates = roomCatalog.getAllRooms().stream()
+                .filter(room -> room.getType().equals(booking.roomType()))
+                .filter(room -> bookingService.isRoomAvailable(room.getId(), booking.checkInDate(), booking.checkOutDate(), null))
+                .sorted(Comparator.comparing((Room room) -> !room.getId().equals(packed))
+                        .thenComparingLong(room -> gapBefore(room, booking))
+                        .thenComparingLong(room -> gapAfter(room, booking))
+                        .thenComparing(Room::getRoomNumber))
+                .toList();
+        for (Room room : candidates) {
+            BookingRequest move = new BookingRequest();
+            move.setRoomId(room.getId());
+            try {
+                Booking assigned = bookingService.updateBooking(booking.id(), move);
+                assignedCounter.increment();
+                return assigned;
+            } catch (Exception e) {
+                log.debug("Room {} not assigned to booking {}: {}", room.getRoomNumber(), booking.id(), e.getMessage());
+            }
+        }
+        failedCounter.increment();
+        throw new Exception("No " + booking.roomType() + " room is free for the whole stay");
+    }
+
+    // Nights between the room's previous departure and this arrival
+    private long gapBefore(Room room, BookingSnapshot stay) {
+        long gap = OPEN_GAP;
+        for (BookingSnapshot range : availabilityIndex.activeRanges(room.getId())) {
+            if (!range.checkOutDate().isAfter(stay.checkInDate())) {
+                gap = Math.min(gap, ChronoUnit.DAYS.between(range.checkOutDate(), stay.checkInDate()));
+            }
+        }
+        return gap;
+    }
+
+    // Nights between this departure and the room's next arrival
+    private long gapAfter(Room room, BookingSnapshot stay) {
+        for (BookingSnapshot range : availabilityIndex.activeRanges(room.getId())) {
+            if (!range.checkInDate().isBefore(stay.checkOutDate())) {
+                return Math.min(OPEN_GAP, ChronoUnit.DAYS.between(stay.checkOutDate(), range.checkInDate()));
+            }
+        }
+        return OPEN_GAP;
+    }
+}
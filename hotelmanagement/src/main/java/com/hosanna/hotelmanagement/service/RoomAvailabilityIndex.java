@@ -0,0 +1,150 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index of the active (not cancelled / completed) date ranges of every room.
+ * Ranges are kept in a skip list sorted by check-in date, so an overlap check only
+ * looks at the few ranges that start inside [checkIn - longestStay, checkOut).
+ * The index is loaded once at startup and then follows committed BookingChangedEvents.
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+    private static final Comparator<BookingSnapshot> BY_CHECK_IN =
+            Comparator.comparing(BookingSnapshot::checkInDate).thenComparing(BookingSnapshot::id);
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+
+    private final Map<Long, RoomTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, BookingSnapshot> indexed = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public RoomAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${booking.availability-index.enabled:true}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (BookingSnapshot snapshot : bookingRepository.findActiveSnapshots()) {
+                add(snapshot);
+            }
+            ready = true;
+            log.info("Availability index loaded with {} active bookings over {} rooms", indexed.size(), timelines.size());
+        } catch (RuntimeException e) {
+            // Keep serving from the database overlap query rather than failing startup
+            log.warn("Could not load availability index, falling back to database checks", e);
+        }
+    }
+
+    /**
+     * True once the index has been loaded; until then callers should ask the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns true if no active booking of the room overlaps [checkIn, checkOut)
+     */
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut, Long excludeBookingId) {
+        RoomTimeline timeline = timelines.get(roomId);
+        if (timeline == null) {
+            return true;
+        }
+        // No stored range is longer than maxNights, so anything starting earlier cannot reach checkIn
+        BookingSnapshot from = probe(checkIn.minusDays(timeline.maxNights));
+        BookingSnapshot to = probe(checkOut);
+        for (BookingSnapshot range : timeline.ranges.subSet(from, true, to, false)) {
+            if (excludeBookingId != null && excludeBookingId.equals(range.id())) {
+                continue;
+            }
+            if (range.checkOutDate().isAfter(checkIn)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Active ranges of one room ordered by check-in date
+     */
+    public List<BookingSnapshot> activeRanges(Long roomId) {
+        RoomTimeline timeline = timelines.get(roomId);
+        return timeline == null ? List.of() : List.copyOf(timeline.ranges);
+    }
+
+    // Applied after commit so rolled back changes never reach the index.
+    // Runs before other listeners, which may read the index to rebuild their own state.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.before() != null) {
+            remove(event.before().id());
+        }
+        if (event.after() != null) {
+            remove(event.after().id());
+            if (event.after().isActive()) {
+                add(event.after());
+            }
+        }
+    }
+
+    private void add(BookingSnapshot snapshot) {
+        if (snapshot.roomId() == null) {
+            return;
+        }
+        RoomTimeline timeline = timelines.computeIfAbsent(snapshot.roomId(), id -> new RoomTimeline());
+        synchronized (timeline) {
+            timeline.ranges.add(snapshot);
+            timeline.maxNights = Math.max(timeline.maxNights, snapshot.nights());
+        }
+        indexed.put(snapshot.id(), snapshot);
+    }
+
+    private void remove(Long bookingId) {
+        BookingSnapshot existing = indexed.remove(bookingId);
+        if (existing == null) {
+            return;
+        }
+        RoomTimeline timeline = timelines.get(existing.roomId());
+        if (timeline != null) {
+            timeline.ranges.remove(existing);
+        }
+    }
+
+    private static BookingSnapshot probe(LocalDate checkIn) {
+        return new BookingSnapshot(Long.MIN_VALUE, null, null, checkIn, checkIn, null);
+    }
+
+    private static final class RoomTimeline {
+        private final ConcurrentSkipListSet<BookingSnapshot> ranges = new ConcurrentSkipListSet<>(BY_CHECK_IN);
+        // Longest stay ever indexed for this room; only grows, which keeps the scan window safe
+        private volatile long maxNights;
+    }
+}
@@ -0,0 +1,152 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.ResourceVersion;
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.hosanna.hotelmanagement.event.RoomChangedEvent;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.repository.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-through copy of the rooms table. Readers get an immutable snapshot without locking;
+ * writers re-read the changed rooms and swap in a new snapshot, including the available count.
+ * Rooms change through RoomService (RoomChangedEvent) and their available flag through
+ * BookingService and the completion job (BookingChangedEvent).
+ *
+ * Each snapshot also carries the validators of the whole list for conditional GETs: the tag is a
+ * hash of every (id, version) pair, so any instance holding the same rooms computes the same tag.
+ */
+@Component
+public class RoomCatalog {
+
+    private final RoomRepository roomRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.of(Map.of(), 0));
+
+    public RoomCatalog(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        Map<Long, Room> rooms = new LinkedHashMap<>();
+        long available = 0;
+        for (Room room : roomRepository.findAll()) {
+            rooms.put(room.getId(), copyOf(room));
+            available += isAvailable(room);
+        }
+        snapshot.set(Snapshot.of(rooms, available));
+    }
+
+    public List<Room> getAllRooms() {
+        return snapshot.get().rooms();
+    }
+
+    public Optional<Room> getRoom(Long id) {
+        return Optional.ofNullable(snapshot.get().byId().get(id));
+    }
+
+    /**
+     * Every room by id from one snapshot, for readers that look up many rooms and must see the same list
+     */
+    public Map<Long, Room> getRoomsById() {
+        return snapshot.get().byId();
+    }
+
+    public long getAvailableCount() {
+        return snapshot.get().availableCount();
+    }
+
+    public ResourceVersion getRoomsVersion() {
+        return snapshot.get().version();
+    }
+
+    public static ResourceVersion versionOf(Room room) {
+        return new ResourceVersion("r" + room.getId() + "-" + room.getVersion(), room.getUpdatedAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        refresh(Set.of(event.roomId()));
+    }
+
+    // Bookings flip Room.available, so re-read the rooms they touched
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Set<Long> roomIds = new HashSet<>();
+        if (event.before() != null && event.before().roomId() != null) {
+            roomIds.add(event.before().roomId());
+        }
+        if (event.after() != null && event.after().roomId() != null) {
+            roomIds.add(event.after().roomId());
+        }
+        refresh(roomIds);
+    }
+
+    // Copy-on-write: the available count is adjusted by the difference of each replaced room
+    private synchronized void refresh(Set<Long> roomIds) {
+        Snapshot current = snapshot.get();
+        Map<Long, Room> rooms = new LinkedHashMap<>(current.byId());
+        long available = current.availableCount();
+        for (Long id : roomIds) {
+            Room previous = rooms.remove(id);
+            if (previous != null) {
+                available -= isAvailable(previous);
+            }
+            Optional<Room> room = roomRepository.findById(id);
+            if (room.isPresent()) {
+                rooms.put(id, copyOf(room.get()));
+                available += isAvailable(room.get());
+            }
+        }
+        snapshot.set(Snapshot.of(rooms, available));
+    }
+
+    private static int isAvailable(Room room) {
+        return Boolean.TRUE.equals(room.getAvailable()) ? 1 : 0;
+    }
+
+    // Detached copy so the cached rooms never share state with a persistence context
+    private static Room copyOf(Room room) {
+        Room copy = new Room(room.getRoomNumber(), room.getType(), room.getPrice(), room.getAvailable());
+        copy.setId(room.getId());
+        copy.setVersion(room.getVersion());
+        copy.setUpdatedAt(room.getUpdatedAt());
+        return copy;
+    }
+
+    private record Snapshot(List<Room> rooms, Map<Long, Room> byId, long availableCount, ResourceVersion version) {
+
+        static Snapshot of(Map<Long, Room> byId, long availableCount) {
+            List<Room> rooms = Collections.unmodifiableList(new ArrayList<>(byId.values()));
+            // Order-independent (a sum of mixed per-room hashes), refreshed rooms move to the end of the map
+            long hash = rooms.size();
+            Instant lastModified = null;
+            for (Room room : rooms) {
+                hash += mix(room.getId() * 0x9E3779B97F4A7C15L + room.getVersion());
+                lastModified = ResourceVersion.latest(lastModified, room.getUpdatedAt());
+            }
+            ResourceVersion version = new ResourceVersion("rooms-" + Long.toHexString(hash), lastModified);
+            return new Snapshot(rooms, Collections.unmodifiableMap(byId), availableCount, version);
+        }
+
+        // SplitMix64 finalizer
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.hosanna.hotelmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-process locks keyed by room id. Writes to the same room queue up behind each other
+ * while writes to different rooms (almost always different stripes) run in parallel.
+ * Across application instances the Room version and the bookings overlap trigger take over.
+ */
+@Component
+public class RoomLocks {
+
+    static final String BUSY = "The room is busy with other bookings. Please try again.";
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public RoomLocks(@Value("${booking.room-lock-stripes:256}") int stripeCount,
+                     @Value("${booking.room-lock-timeout:PT5S}") Duration timeout) {
+        // Round up to a power of two so the stripe is a mask of the hash
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Runs action while holding the stripes of all given rooms (null ids are ignored).
+     * Stripes are taken in index order so two callers locking the same rooms cannot deadlock.
+     */
+    <T> T withRoomLocks(Collection<Long> roomIds, CheckedSupplier<T> action) throws Exception {
+        int[] indexes = roomIds.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        List<ReentrantLock> held = new ArrayList<>(indexes.length);
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new Exception(BUSY);
+                }
+                held.add(lock);
+            }
+            return action.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    private int stripeOf(Long roomId) {
+        long h = roomId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (stripes.length - 1);
+    }
+}
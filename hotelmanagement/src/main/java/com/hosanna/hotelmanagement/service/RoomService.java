@@ -1,61 +1,128 @@
 package com.hosanna.hotelmanagement.service;
 
+import com.hosanna.hotelmanagement.dto.PageResponse;
+import com.hosanna.hotelmanagement.dto.ResourceVersion;
+import com.hosanna.hotelmanagement.event.RoomChangedEvent;
+import com.hosanna.hotelmanagement.event.RoomSnapshot;
 import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.repository.BookingRepository;
 import com.hosanna.hotelmanagement.repository.RoomRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("room.service")
 public class RoomService {
 
     private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final RoomCatalog roomCatalog;
+    private final OccupancyEngine occupancyEngine;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository,
+                       BookingRepository bookingRepository,
+                       RoomCatalog roomCatalog,
+                       OccupancyEngine occupancyEngine,
+                       ApplicationEventPublisher eventPublisher) {
         this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.roomCatalog = roomCatalog;
+        this.occupancyEngine = occupancyEngine;
+        this.eventPublisher = eventPublisher;
     }
 
     // Create new room
     public Room createRoom(Room room) {
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(saved.getId(), null, RoomSnapshot.of(saved)));
+        return saved;
     }
 
-    // Get all rooms
+    // Get all rooms (served from the in-memory catalog)
     public List<Room> getAllRooms() {
-        return roomRepository.findAll();
+        return roomCatalog.getAllRooms();
     }
 
-    // Get room by ID
+    // Validators of the whole room list, changes with any room
+    public ResourceVersion getRoomsVersion() {
+        return roomCatalog.getRoomsVersion();
+    }
+
+    // Validators of one room (id and version)
+    public ResourceVersion getRoomVersion(Room room) {
+        return RoomCatalog.versionOf(room);
+    }
+
+    // Get one keyset page of rooms (limit + 1 rows are read to know whether there is a next page)
+    @Transactional(readOnly = true)
+    public PageResponse<Room> getRoomPage(long afterId, int limit) {
+        return PageResponse.of(roomRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit + 1)),
+                limit, Room::getId);
+    }
+
+    // Same page without the available flag
+    @Transactional(readOnly = true)
+    public PageResponse<RoomSnapshot> getRoomSummaryPage(long afterId, int limit) {
+        return PageResponse.of(roomRepository.findSnapshots(afterId, PageRequest.ofSize(limit + 1)),
+                limit, RoomSnapshot::id);
+    }
+
+    // Get room by ID (served from the in-memory catalog)
     public Optional<Room> getRoomById(Long id) {
-        return roomRepository.findById(id);
+        return roomCatalog.getRoom(id);
+    }
+
+    // Find rooms free for the whole stay, optionally filtered by type and max price
+    @Timed(value = "room.search", histogram = true)
+    public List<RoomSnapshot> findAvailableRooms(LocalDate checkIn, LocalDate checkOut, String type, Double maxPrice) {
+        if (occupancyEngine.isReady()) {
+            return occupancyEngine.findAvailableRooms(checkIn, checkOut, type, maxPrice);
+        }
+
+        // Engine not loaded yet - ask the database room by room
+        return roomRepository.findAll().stream()
+                .filter(room -> type == null || type.equalsIgnoreCase(room.getType()))
+                .filter(room -> maxPrice == null || (room.getPrice() != null && room.getPrice() <= maxPrice))
+                .filter(room -> !bookingRepository.existsOverlappingBooking(room.getId(), checkIn, checkOut, null))
+                .map(RoomSnapshot::of)
+                .toList();
     }
 
     // Update room - FIXED to handle partial updates (null-safe)
     public Room updateRoom(Long id, Room updatedRoom) {
-        return roomRepository.findById(id).map(room -> {
-            // Only update fields that are provided (not null)
-            if (updatedRoom.getRoomNumber() != null) {
-                room.setRoomNumber(updatedRoom.getRoomNumber());
-            }
-            if (updatedRoom.getType() != null) {
-                room.setType(updatedRoom.getType());
-            }
-            if (updatedRoom.getPrice() != null) {
-                room.setPrice(updatedRoom.getPrice());
-            }
-            if (updatedRoom.getAvailable() != null) {
-                room.setAvailable(updatedRoom.getAvailable());
-            }
-            return roomRepository.save(room);
-        }).orElseThrow(() -> new RuntimeException("Room not found with id " + id));
+        Room room = roomRepository.findById(id).orElseThrow(() -> new RuntimeException("Room not found with id " + id));
+        RoomSnapshot before = RoomSnapshot.of(room);
+        // Only update fields that are provided (not null)
+        if (updatedRoom.getRoomNumber() != null) {
+            room.setRoomNumber(updatedRoom.getRoomNumber());
+        }
+        if (updatedRoom.getType() != null) {
+            room.setType(updatedRoom.getType());
+        }
+        if (updatedRoom.getPrice() != null) {
+            room.setPrice(updatedRoom.getPrice());
+        }
+        if (updatedRoom.getAvailable() != null) {
+            room.setAvailable(updatedRoom.getAvailable());
+        }
+        Room saved = roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(saved.getId(), before, RoomSnapshot.of(saved)));
+        return saved;
     }
 
     // Delete room
     public void deleteRoom(Long id) {
-        if (!roomRepository.existsById(id)) {
-            throw new RuntimeException("Room not found with id " + id);
-        }
-        roomRepository.deleteById(id);
+        Room room = roomRepository.findById(id).orElseThrow(() -> new RuntimeException("Room not found with id " + id));
+        RoomSnapshot before = RoomSnapshot.of(room);
+        roomRepository.delete(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(id, before, null));
     }
-}
\ No newline at end of file
+}
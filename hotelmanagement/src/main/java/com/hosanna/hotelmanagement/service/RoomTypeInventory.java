@@ -0,0 +1,400 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.InventoryReconciliation;
+import com.hosanna.hotelmanagement.dto.RoomTypeAvailability;
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Rooms sold per room type and night (room_type_inventory), so whether a type can still be sold
+ * for a stay costs one indexed range read of one row per night, whatever the number of rooms or bookings.
+ * A night counts while its booking is BOOKED, with or without a room assigned yet.
+ *
+ * Every booking change is turned into +/- deltas inside the writer's transaction and applied just
+ * before it commits, in (type, night) order so concurrent writers lock counters in the same order.
+ * An increment only applies while the counter stays within the type's current room count, otherwise
+ * the whole write is rolled back (RoomTypeSoldOutException): this is what keeps room-type bookings,
+ * which hold no room until check-in, from overselling across instances. reconcile() checks the
+ * counters against the bookings table and repairs drift.
+ *
+ * Counters alone cannot tell that the free nights of a stay are spread over different rooms. So while
+ * a type has stays without a room, every write that adds or moves one of its stays also takes the type's
+ * advisory lock and checks that all its stays still pack into its rooms (see RoomTypePacking).
+ */
+@Component
+public class RoomTypeInventory {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomTypeInventory.class);
+
+    private static final String ENSURE = """
+            INSERT INTO room_type_inventory (room_type, stay_date, sold) VALUES (:roomType, :stayDate, 0)
+            ON CONFLICT (room_type, stay_date) DO NOTHING
+            """;
+
+    // Decrements never go below zero, a drifted or missing counter is left to reconcile()
+    private static final String APPLY = """
+            UPDATE room_type_inventory SET sold = GREATEST(sold + :delta, 0)
+            WHERE room_type = :roomType AND stay_date = :stayDate AND sold + :delta <= :capacity
+            """;
+
+    // Serializes the packing checks of one type across instances, released at commit
+    private static final String TYPE_LOCK = "SELECT pg_advisory_xact_lock(:lockClass, hashtext(:roomType))";
+
+    // Two-key advisory locks do not collide with the single bigint key of the room locks in the schema script
+    private static final int TYPE_LOCK_CLASS = 2;
+
+    private static final String HAS_UNASSIGNED = """
+            SELECT EXISTS (
+                SELECT 1 FROM bookings
+                WHERE room_type = :roomType AND room_id IS NULL AND status = 0 AND check_out_date > :today) -- BOOKED
+            """;
+
+    private static final String STAYS = """
+            SELECT id, room_id, check_in_date, check_out_date FROM bookings
+            WHERE room_type = :roomType AND status = 0 AND check_out_date > :today -- BOOKED
+            """;
+
+    private static final String SOLD_RANGE = """
+            SELECT stay_date, sold FROM room_type_inventory
+            WHERE room_type = :roomType AND stay_date >= :from AND stay_date < :to
+            """;
+
+    private static final String DRIFT = """
+            WITH expected AS (
+                SELECT b.room_type, CAST(night AS date) AS stay_date, COUNT(*) AS sold
+                FROM bookings b
+                CROSS JOIN LATERAL generate_series(GREATEST(b.check_in_date, :from), b.check_out_date - 1,
+                        INTERVAL '1 day') night
+                WHERE b.status = 0 AND b.check_out_date > :from -- BOOKED
+                GROUP BY b.room_type, CAST(night AS date)),
+            counted AS (
+                SELECT room_type, stay_date, sold FROM room_type_inventory WHERE stay_date >= :from)
+            SELECT coalesce(e.room_type, c.room_type), coalesce(e.stay_date, c.stay_date),
+                   coalesce(c.sold, 0), coalesce(e.sold, 0)
+            FROM expected e
+            FULL JOIN counted c ON c.room_type = e.room_type AND c.stay_date = e.stay_date
+            WHERE coalesce(c.sold, 0) <> coalesce(e.sold, 0)
+            ORDER BY 1, 2
+            """;
+
+    private static final String REPAIR = """
+            INSERT INTO room_type_inventory (room_type, stay_date, sold) VALUES (:roomType, :stayDate, :sold)
+            ON CONFLICT (room_type, stay_date) DO UPDATE SET sold = EXCLUDED.sold
+            """;
+
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomCatalog roomCatalog;
+    private final boolean enabled;
+    private final boolean repairOnReconcile;
+    private final Counter mismatchCounter;
+
+    public RoomTypeInventory(NamedParameterJdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             RoomCatalog roomCatalog,
+                             MeterRegistry meterRegistry,
+                             @Value("${inventory.enabled:true}") boolean enabled,
+                             @Value("${inventory.reconcile.repair:true}") boolean repairOnReconcile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.roomCatalog = roomCatalog;
+        this.enabled = enabled;
+        this.repairOnReconcile = repairOnReconcile;
+        this.mismatchCounter = Counter.builder("inventory.reconcile.mismatches")
+                .description("Room-type counters found out of step with the bookings")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The type as spelled by its rooms (matched ignoring case), empty when no room has it
+     */
+    public Optional<String> resolveType(String roomType) {
+        if (roomType == null) {
+            return Optional.empty();
+        }
+        return roomCatalog.getAllRooms().stream()
+                .map(Room::getType)
+                .filter(type -> type.equalsIgnoreCase(roomType.trim()))
+                .findFirst();
+    }
+
+    // Current number of rooms of the type, from the in-memory catalog
+    public int capacity(String roomType) {
+        return (int) roomCatalog.getAllRooms().stream().filter(room -> roomType.equals(room.getType())).count();
+    }
+
+    /**
+     * Sold and free rooms of the type on each night of the stay, one range read
+     */
+    public RoomTypeAvailability getAvailability(String roomType, LocalDate checkIn, LocalDate checkOut) {
+        Map<LocalDate, Integer> sold = new HashMap<>();
+        jdbcTemplate.query(SOLD_RANGE, new MapSqlParameterSource()
+                        .addValue("roomType", roomType)
+                        .addValue("from", Date.valueOf(checkIn))
+                        .addValue("to", Date.valueOf(checkOut)),
+                rs -> { sold.put(rs.getDate(1).toLocalDate(), rs.getInt(2)); });
+
+        int capacity = capacity(roomType);
+        int available = capacity;
+        List<RoomTypeAvailability.Night> nights = new ArrayList<>();
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            int nightSold = sold.getOrDefault(night, 0);
+            int free = Math.max(0, capacity - nightSold);
+            available = Math.min(available, free);
+            nights.add(new RoomTypeAvailability.Night(night, nightSold, free));
+        }
+        return new RoomTypeAvailability(roomType, checkIn, checkOut, capacity, available, nights);
+    }
+
+    // Runs at publish time, inside the writer's transaction, so the deltas commit or roll back with it
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Published outside a transaction: apply this change on its own
+            Deltas deltas = new Deltas();
+            deltas.add(event.before(), -1);
+            deltas.add(event.after(), 1);
+            deltas.track(event.before(), event.after());
+            transactionTemplate.executeWithoutResult(status -> write(deltas));
+            return;
+        }
+        Deltas deltas = transactionDeltas();
+        deltas.add(event.before(), -1);
+        deltas.add(event.after(), 1);
+        deltas.track(event.before(), event.after());
+    }
+
+    // The deltas collected so far by the current transaction, applied just before it commits
+    private Deltas transactionDeltas() {
+        Deltas deltas = (Deltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = new Deltas();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        return deltas;
+    }
+
+    @Scheduled(cron = "${inventory.reconcile.cron:0 45 3 * * *}")
+    public void reconcileNightly() {
+        if (enabled) {
+            reconcile(repairOnReconcile);
+        }
+    }
+
+    /**
+     * Compares every counter from today on with the BOOKED stays and, with repair, overwrites the drifted ones
+     */
+    public InventoryReconciliation reconcile(boolean repair) {
+        LocalDate from = LocalDate.now();
+        return transactionTemplate.execute(status -> {
+            if (repair) {
+                // Holds back booking writers so the expected counts cannot move under the repair
+                jdbcTemplate.getJdbcTemplate().execute("LOCK TABLE room_type_inventory IN EXCLUSIVE MODE");
+            }
+            List<InventoryReconciliation.Mismatch> mismatches = jdbcTemplate.query(DRIFT,
+                    new MapSqlParameterSource("from", Date.valueOf(from)),
+                    (rs, rowNum) -> new InventoryReconciliation.Mismatch(rs.getString(1), rs.getDate(2).toLocalDate(),
+                            rs.getInt(3), rs.getInt(4)));
+            if (mismatches.isEmpty()) {
+                return new InventoryReconciliation(from, 0, false, List.of());
+            }
+
+            mismatchCounter.increment(mismatches.size());
+            log.warn("{} room-type counters out of step with the bookings{}", mismatches.size(), repair ? ", repaired" : "");
+            if (repair) {
+                jdbcTemplate.batchUpdate(REPAIR, mismatches.stream()
+                        .map(mismatch -> new MapSqlParameterSource()
+                                .addValue("roomType", mismatch.roomType())
+                                .addValue("stayDate", Date.valueOf(mismatch.night()))
+                                .addValue("sold", mismatch.expected()))
+                        .toArray(MapSqlParameterSource[]::new));
+            }
+            return new InventoryReconciliation(from, mismatches.size(), repair,
+                    List.copyOf(mismatches.subList(0, Math.min(mismatches.size(), MAX_REPORTED_MISMATCHES))));
+        });
+    }
+
+    /**
+     * Packs the type's current stays into its rooms, for the allocator to follow
+     */
+    RoomTypePacking.Result packing(String roomType) {
+        return RoomTypePacking.pack(roomIds(roomType), loadStays(roomType, LocalDate.now()).values());
+    }
+
+    private List<Long> roomIds(String roomType) {
+        return roomCatalog.getAllRooms().stream().filter(room -> roomType.equals(room.getType())).map(Room::getId).toList();
+    }
+
+    private Map<Long, BookingSnapshot> loadStays(String roomType, LocalDate today) {
+        Map<Long, BookingSnapshot> stays = new HashMap<>();
+        jdbcTemplate.query(STAYS, new MapSqlParameterSource()
+                        .addValue("roomType", roomType)
+                        .addValue("today", Date.valueOf(today)),
+                rs -> {
+                    long id = rs.getLong(1);
+                    stays.put(id, new BookingSnapshot(id, rs.getObject(2, Long.class), roomType,
+                            rs.getDate(3).toLocalDate(), rs.getDate(4).toLocalDate(), BookingStatus.BOOKED));
+                });
+        return stays;
+    }
+
+    // Throws when the type's stays, with this transaction's changes, no longer fit its rooms
+    private void checkPacking(String roomType, Map<Long, BookingSnapshot> changed) {
+        LocalDate today = LocalDate.now();
+        boolean addsUnassigned = changed.values().stream()
+                .anyMatch(stay -> stay != null && stay.isActive() && stay.roomId() == null && roomType.equals(stay.roomType()));
+        if (!addsUnassigned && !Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_UNASSIGNED, new MapSqlParameterSource()
+                .addValue("roomType", roomType)
+                .addValue("today", Date.valueOf(today)), Boolean.class))) {
+            return;
+        }
+        Map<Long, BookingSnapshot> stays = loadStays(roomType, today);
+        // Hibernate flushes the booking rows only at commit, after this runs: overlay them from the events
+        changed.forEach((id, after) -> {
+            if (after != null && after.isActive() && roomType.equals(after.roomType()) && after.checkOutDate().isAfter(today)) {
+                stays.put(id, after);
+            } else {
+                stays.remove(id);
+            }
+        });
+        RoomTypePacking.Result packing = RoomTypePacking.pack(roomIds(roomType), stays.values());
+        if (!packing.fits()) {
+            log.debug("{} stays no longer fit the {} rooms, first left over: {}", stays.size(), roomType, packing.unplaced());
+            throw new RoomTypeSoldOutException(roomType, packing.unplaced().checkInDate());
+        }
+    }
+
+    private void write(Deltas deltas) {
+        // Type locks first and in name order, like the counters below, so writers cannot deadlock
+        for (String roomType : deltas.packTypes) {
+            jdbcTemplate.query(TYPE_LOCK, new MapSqlParameterSource()
+                    .addValue("lockClass", TYPE_LOCK_CLASS)
+                    .addValue("roomType", roomType), rs -> { });
+        }
+        writeCounters(deltas);
+        for (String roomType : deltas.packTypes) {
+            checkPacking(roomType, deltas.changed);
+        }
+    }
+
+    private void writeCounters(Deltas deltas) {
+        List<MapSqlParameterSource> increments = new ArrayList<>();
+        List<MapSqlParameterSource> updates = new ArrayList<>();
+        List<Night> keys = new ArrayList<>();
+        Map<String, Integer> capacities = new HashMap<>();
+        deltas.nights.forEach((key, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("roomType", key.roomType())
+                    .addValue("stayDate", Date.valueOf(key.stayDate()))
+                    .addValue("delta", delta)
+                    .addValue("capacity", delta > 0 ? capacities.computeIfAbsent(key.roomType(), this::capacity) : Integer.MAX_VALUE);
+            if (delta > 0) {
+                increments.add(params);
+            }
+            updates.add(params);
+            keys.add(key);
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+        if (!increments.isEmpty()) {
+            jdbcTemplate.batchUpdate(ENSURE, increments.toArray(new MapSqlParameterSource[0]));
+        }
+        int[] counts = jdbcTemplate.batchUpdate(APPLY, updates.toArray(new MapSqlParameterSource[0]));
+        for (int i = 0; i < counts.length; i++) {
+            // Only a refused increment means sold out; a decrement of a counter that has no row
+            // (a night before the last backfill or repair) has nothing to release
+            if (counts[i] == 0 && deltas.nights.get(keys.get(i)) > 0) {
+                throw new RoomTypeSoldOutException(keys.get(i).roomType(), keys.get(i).stayDate());
+            }
+        }
+    }
+
+    private record Night(String roomType, LocalDate stayDate) implements Comparable<Night> {
+
+        @Override
+        public int compareTo(Night other) {
+            int byType = roomType.compareTo(other.roomType);
+            return byType != 0 ? byType : stayDate.compareTo(other.stayDate);
+        }
+    }
+
+    // The deltas of one transaction, sorted so every writer updates the counters in the same order
+    private final class Deltas implements TransactionSynchronization {
+
+        final TreeMap<Night, Integer> nights = new TreeMap<>();
+        // Latest state of every booking changed in the transaction, and the types whose stays it adds or moves
+        final Map<Long, BookingSnapshot> changed = new HashMap<>();
+        final TreeSet<String> packTypes = new TreeSet<>();
+
+        void add(BookingSnapshot booking, int sign) {
+            if (booking == null || !booking.isActive() || booking.roomType() == null) {
+                return;
+            }
+            for (LocalDate night = booking.checkInDate(); night.isBefore(booking.checkOutDate()); night = night.plusDays(1)) {
+                nights.merge(new Night(booking.roomType(), night), sign, Integer::sum);
+            }
+        }
+
+        // A deleted booking is kept as null, so it is dropped from the stays read back
+        void track(BookingSnapshot before, BookingSnapshot after) {
+            BookingSnapshot any = after != null ? after : before;
+            if (any == null || any.id() == null) {
+                return;
+            }
+            changed.put(any.id(), after);
+            if (after != null && after.isActive() && after.roomType() != null && !after.equals(before)) {
+                packTypes.add(after.roomType());
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RoomTypeInventory.this);
+        }
+    }
+}
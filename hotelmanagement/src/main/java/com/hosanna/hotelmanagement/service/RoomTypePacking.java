@@ -0,0 +1,92 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fits the active stays of one room type into its rooms. Stays with a room keep it, stays without one
+ * are placed in arrival order (longest first) on the free room that fits tightest: shortest gap to the
+ * room's previous departure, then to its next arrival, then lowest room id.
+ *
+ * Per-night counters only say that some room is free on each night; a packing that places every stay
+ * proves one room stays free for each whole stay, so a room-type booking cannot be oversold by
+ * fixed-room bookings splitting the free nights over different rooms. The greedy packing may refuse
+ * a mix that a cleverer assignment would still fit, never the other way round.
+ */
+final class RoomTypePacking {
+
+    // Past this a gap counts as open-ended
+    private static final long OPEN_GAP = 10_000;
+
+    /**
+     * Room per placed stay without a room (booking id -> room id), and the first stay that did not fit, if any
+     */
+    record Result(Map<Long, Long> rooms, BookingSnapshot unplaced) {
+
+        boolean fits() {
+            return unplaced == null;
+        }
+    }
+
+    private RoomTypePacking() {
+    }
+
+    static Result pack(Collection<Long> roomIds, Collection<BookingSnapshot> stays) {
+        // Check-in -> check-out of every stay already on the room, disjoint and ordered
+        Map<Long, TreeMap<LocalDate, LocalDate>> occupied = new HashMap<>();
+        roomIds.forEach(roomId -> occupied.put(roomId, new TreeMap<>()));
+        List<BookingSnapshot> unassigned = stays.stream()
+                .filter(BookingSnapshot::isActive)
+                .filter(stay -> stay.roomId() == null)
+                .sorted(Comparator.comparing(BookingSnapshot::checkInDate)
+                        .thenComparing(BookingSnapshot::checkOutDate, Comparator.reverseOrder())
+                        .thenComparing(BookingSnapshot::id, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        for (BookingSnapshot stay : stays) {
+            TreeMap<LocalDate, LocalDate> ranges = stay.roomId() != null && stay.isActive() ? occupied.get(stay.roomId()) : null;
+            if (ranges != null) {
+                ranges.merge(stay.checkInDate(), stay.checkOutDate(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+
+        Map<Long, Long> placed = new HashMap<>();
+        for (BookingSnapshot stay : unassigned) {
+            Long best = null;
+            long bestBefore = 0;
+            long bestAfter = 0;
+            for (Map.Entry<Long, TreeMap<LocalDate, LocalDate>> room : occupied.entrySet()) {
+                TreeMap<LocalDate, LocalDate> ranges = room.getValue();
+                // The last stay arriving before this one leaves is the only one that can overlap it
+                Map.Entry<LocalDate, LocalDate> previous = ranges.lowerEntry(stay.checkOutDate());
+                if (previous != null && previous.getValue().isAfter(stay.checkInDate())) {
+                    continue;
+                }
+                Map.Entry<LocalDate, LocalDate> next = ranges.ceilingEntry(stay.checkOutDate());
+                long before = previous == null ? OPEN_GAP
+                        : Math.min(OPEN_GAP, ChronoUnit.DAYS.between(previous.getValue(), stay.checkInDate()));
+                long after = next == null ? OPEN_GAP
+                        : Math.min(OPEN_GAP, ChronoUnit.DAYS.between(stay.checkOutDate(), next.getKey()));
+                if (best == null || before < bestBefore || (before == bestBefore
+                        && (after < bestAfter || (after == bestAfter && room.getKey() < best)))) {
+                    best = room.getKey();
+                    bestBefore = before;
+                    bestAfter = after;
+                }
+            }
+            if (best == null) {
+                return new Result(placed, stay);
+            }
+            occupied.get(best).put(stay.checkInDate(), stay.checkOutDate());
+            placed.put(stay.id(), best);
+        }
+        return new Result(placed, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hosanna.hotelmanagement.service;
+
+import java.time.LocalDate;
+
+/**
+ * Thrown at commit when a booking would sell more rooms of a type on a night than the type has,
+ * or would leave a room-type stay without a room free for all its nights (the night is its check-in);
+ * the transaction is rolled back and BookingService reports it as a normal rejection
+ */
+public class RoomTypeSoldOutException extends RuntimeException {
+
+    public RoomTypeSoldOutException(String roomType, LocalDate night) {
+        super("No " + roomType + " rooms left on " + night);
+    }
+}
@@ -1,25 +1,56 @@
 package com.hosanna.hotelmanagement.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hosanna.hotelmanagement.dto.PageResponse;
+import com.hosanna.hotelmanagement.dto.UserSummary;
 import com.hosanna.hotelmanagement.model.User;
 import com.hosanna.hotelmanagement.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("user.service")
 public class UserService implements UserDetailsService {
 
     @Autowired
     private UserRepository userRepository;
 
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHashingService passwordHashing;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.user-details-cache.ttl:PT30S}")
+    private Duration userDetailsTtl;
+
+    // Short-lived cache so authenticated requests do not hit the database, evicted on user changes
+    private Cache<String, UserDetails> userDetailsCache;
+
+    @PostConstruct
+    void initUserDetailsCache() {
+        userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(userDetailsTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "user.details");
+    }
 
     // Register user
     public User registerUser(User user) throws Exception {
@@ -31,7 +62,7 @@ public class UserService implements UserDetailsService {
         }
 
         // Encrypt password
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashing.encode(user.getPassword()));
         return userRepository.save(user);
     }
 
@@ -41,7 +72,17 @@ public class UserService implements UserDetailsService {
         if (userOpt.isEmpty()) throw new Exception("User not found");
 
         User user = userOpt.get();
-        return passwordEncoder.matches(rawPassword, user.getPassword());
+        if (!passwordHashing.matches(rawPassword, user.getPassword())) {
+            return false;
+        }
+
+        // Bring old hashes up to the configured bcrypt cost while we have the raw password
+        if (passwordHashing.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashing.encode(rawPassword));
+            userRepository.save(user);
+            userDetailsCache.invalidate(user.getUsername());
+        }
+        return true;
     }
 
     // Get all users
@@ -49,6 +90,18 @@ public class UserService implements UserDetailsService {
         return userRepository.findAll();
     }
 
+    // Get one keyset page of users (limit + 1 rows are read to know whether there is a next page)
+    public PageResponse<User> getUserPage(long afterId, int limit) {
+        return PageResponse.of(userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit + 1)),
+                limit, User::getId);
+    }
+
+    // Same page without the password hash
+    public PageResponse<UserSummary> getUserSummaryPage(long afterId, int limit) {
+        return PageResponse.of(userRepository.findSummaries(afterId, PageRequest.ofSize(limit + 1)),
+                limit, UserSummary::id);
+    }
+
     // Get single user by ID
     public User getUserById(Long id) throws Exception {
         return userRepository.findById(id)
@@ -59,23 +112,26 @@ public class UserService implements UserDetailsService {
     public User updateUser(Long id, User updatedUser) throws Exception {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new Exception("User not found with id: " + id));
+        userDetailsCache.invalidate(existingUser.getUsername());
 
         if (updatedUser.getUsername() != null) existingUser.setUsername(updatedUser.getUsername());
         if (updatedUser.getEmail() != null) existingUser.setEmail(updatedUser.getEmail());
         if (updatedUser.getPassword() != null) {
-            existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+            existingUser.setPassword(passwordHashing.encode(updatedUser.getPassword()));
         }
         if (updatedUser.getRole() != null) existingUser.setRole(updatedUser.getRole());
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        userDetailsCache.invalidate(saved.getUsername());
+        return saved;
     }
 
     // Delete user
     public String deleteUser(Long id) throws Exception {
-        if (!userRepository.existsById(id)) {
-            throw new Exception("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new Exception("User not found with id: " + id));
         userRepository.deleteById(id);
+        userDetailsCache.invalidate(user.getUsername());
         return "User deleted successfully!";
     }
 
@@ -84,6 +140,12 @@ public class UserService implements UserDetailsService {
     // ----------------------
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Hand out a copy so callers erasing credentials cannot touch the cached entry
+        UserDetails cached = userDetailsCache.get(username, this::loadUserDetails);
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+
+    private UserDetails loadUserDetails(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
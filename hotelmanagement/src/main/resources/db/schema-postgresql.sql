@@ -0,0 +1,272 @@
+-- Constraints and indexes Hibernate's ddl-auto=update cannot express.
+-- Runs after Hibernate on every startup, so each statement must be idempotent.
+-- Statements are separated by @@ (see spring.sql.init.separator) because DO blocks contain semicolons.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist
+@@
+
+-- Booking.status moved from varchar names to smallint codes (BookingStatus: 0 BOOKED, 1 CANCELLED, 2 COMPLETED).
+-- Converts a table created before that; the overlap constraints below are re-added on the new codes.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'bookings' AND column_name = 'status' AND data_type = 'character varying') THEN
+        ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_no_overlap;
+        ALTER TABLE bookings ALTER COLUMN status TYPE smallint USING CASE status
+            WHEN 'BOOKED' THEN 0 WHEN 'CANCELLED' THEN 1 WHEN 'COMPLETED' THEN 2 END;
+    END IF;
+END
+$$
+@@
+
+-- The full (status, date) indexes are replaced by the partial indexes below
+DROP INDEX IF EXISTS idx_bookings_status_check_in
+@@
+DROP INDEX IF EXISTS idx_bookings_status_check_out
+@@
+
+-- Bookings are range-partitioned by check_out_date, one partition per month (bookings_pYYYYMM) plus a
+-- default partition for anything outside them. BookingPartitionManager creates the months ahead and moves
+-- closed-out months to booking_archive.bookings; bookings_history reads both.
+
+-- Creates the month's partition with its overlap constraint, unless it exists (live or archived)
+CREATE OR REPLACE FUNCTION ensure_booking_partition(p_month date) RETURNS boolean AS $$
+DECLARE
+    lower_bound date := date_trunc('month', p_month)::date;
+    upper_bound date := (date_trunc('month', p_month) + interval '1 month')::date;
+    part text := 'bookings_p' || to_char(lower_bound, 'YYYYMM');
+BEGIN
+    IF to_regclass(part) IS NOT NULL OR to_regclass('booking_archive.' || part) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF bookings FOR VALUES FROM (%L) TO (%L)', part, lower_bound, upper_bound);
+    -- No two BOOKED stays of a room may overlap. The constraint only sees its own partition, stays ending
+    -- in different months are kept apart by the bookings_no_overlap trigger below.
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                   '(room_id WITH =, daterange(check_in_date, check_out_date) WITH &&) WHERE (status = 0)',
+                   part, part || '_no_overlap');
+    RETURN true;
+END
+$$ LANGUAGE plpgsql
+@@
+
+-- Converts a bookings table created by Hibernate (fresh database) or by an older version into the partitioned layout
+DO $$
+DECLARE
+    first_month date;
+    last_month date;
+    next_month date;
+    fk record;
+    fk_names text[] := '{}';
+    fk_defs text[] := '{}';
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('bookings') AND relkind = 'r') THEN
+        RETURN;
+    END IF;
+    BEGIN
+        ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+        ALTER TABLE bookings_unpartitioned DROP CONSTRAINT IF EXISTS bookings_no_overlap;
+        CREATE TABLE bookings (LIKE bookings_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+            PARTITION BY RANGE (check_out_date);
+        CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+        SELECT date_trunc('month', MIN(check_out_date))::date, date_trunc('month', MAX(check_out_date))::date
+        INTO first_month, last_month FROM bookings_unpartitioned;
+        next_month := first_month;
+        WHILE next_month <= last_month LOOP
+            PERFORM ensure_booking_partition(next_month);
+            next_month := (next_month + interval '1 month')::date;
+        END LOOP;
+
+        INSERT INTO bookings SELECT * FROM bookings_unpartitioned;
+
+        FOR fk IN SELECT conname, pg_get_constraintdef(oid) AS def FROM pg_constraint
+                  WHERE conrelid = 'bookings_unpartitioned'::regclass AND contype = 'f' LOOP
+            fk_names := fk_names || fk.conname::text;
+            fk_defs := fk_defs || fk.def;
+        END LOOP;
+        DROP TABLE bookings_unpartitioned;
+
+        -- The partition key has to be part of the primary key; ids stay unique through bookings_seq
+        ALTER TABLE bookings ADD CONSTRAINT bookings_pkey PRIMARY KEY (id, check_out_date);
+        FOR i IN 1 .. coalesce(array_length(fk_names, 1), 0) LOOP
+            EXECUTE format('ALTER TABLE bookings ADD CONSTRAINT %I %s', fk_names[i], fk_defs[i]);
+        END LOOP;
+        CREATE INDEX IF NOT EXISTS idx_bookings_room_dates ON bookings (room_id, check_in_date, check_out_date);
+    EXCEPTION
+        WHEN exclusion_violation THEN
+            RAISE WARNING 'bookings not partitioned: existing BOOKED stays overlap, fix them and restart';
+    END;
+END
+$$
+@@
+
+CREATE SCHEMA IF NOT EXISTS booking_archive
+@@
+CREATE TABLE IF NOT EXISTS booking_archive.bookings (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (check_out_date)
+@@
+-- Columns Hibernate adds to bookings later must exist in the archive too, or archived months cannot be attached
+DO $$
+DECLARE
+    col record;
+BEGIN
+    FOR col IN SELECT a.attname, format_type(a.atttypid, a.atttypmod) AS type FROM pg_attribute a
+               WHERE a.attrelid = 'bookings'::regclass AND a.attnum > 0 AND NOT a.attisdropped
+                 AND NOT EXISTS (SELECT 1 FROM pg_attribute b
+                                 WHERE b.attrelid = 'booking_archive.bookings'::regclass AND b.attname = a.attname
+                                   AND NOT b.attisdropped) LOOP
+        EXECUTE format('ALTER TABLE booking_archive.bookings ADD COLUMN %I %s', col.attname, col.type);
+    END LOOP;
+END
+$$
+@@
+-- Room-type bookings have no room until check-in (RoomAllocator)
+ALTER TABLE bookings ALTER COLUMN room_id DROP NOT NULL
+@@
+ALTER TABLE booking_archive.bookings ALTER COLUMN room_id DROP NOT NULL
+@@
+-- room_type (the type a booking counts against in room_type_inventory) for bookings made before the column existed
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_attribute WHERE attrelid = 'bookings'::regclass AND attname = 'room_type' AND NOT attnotnull) THEN
+        UPDATE bookings b SET room_type = r.type FROM rooms r WHERE r.id = b.room_id AND b.room_type IS NULL;
+        UPDATE booking_archive.bookings b SET room_type = r.type FROM rooms r WHERE r.id = b.room_id AND b.room_type IS NULL;
+        ALTER TABLE bookings ALTER COLUMN room_type SET NOT NULL;
+    END IF;
+END
+$$
+@@
+-- Live and archived bookings, for history reads, exports and rollup rebuilds
+CREATE OR REPLACE VIEW bookings_history AS
+    SELECT id, user_id, room_id, check_in_date, check_out_date, status FROM bookings
+    UNION ALL
+    SELECT id, user_id, room_id, check_in_date, check_out_date, status FROM booking_archive.bookings
+@@
+
+-- Partial indexes on the live subsets; queries must spell the status as a literal for PostgreSQL to use them.
+-- Overlap checks and the completion job's room recompute
+CREATE INDEX IF NOT EXISTS idx_bookings_booked_room_dates ON bookings (room_id, check_in_date, check_out_date) WHERE status = 0
+@@
+-- Expired stays for the completion job, stays covering today
+CREATE INDEX IF NOT EXISTS idx_bookings_booked_check_out ON bookings (check_out_date) WHERE status = 0
+@@
+-- Upcoming stays (everything but cancellations)
+CREATE INDEX IF NOT EXISTS idx_bookings_not_cancelled_check_in ON bookings (check_in_date) WHERE status <> 1
+@@
+-- A room type's upcoming stays, for RoomTypeInventory's packing check
+CREATE INDEX IF NOT EXISTS idx_bookings_booked_type_check_out ON bookings (room_type, check_out_date) WHERE status = 0
+@@
+
+-- Overlap constraint on every partition (ensure_booking_partition adds it to new ones)
+DO $$
+DECLARE
+    part record;
+BEGIN
+    FOR part IN SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'bookings'::regclass LOOP
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = part.relname || '_no_overlap') THEN
+            BEGIN
+                EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                               '(room_id WITH =, daterange(check_in_date, check_out_date) WITH &&) WHERE (status = 0)',
+                               part.relname, part.relname || '_no_overlap');
+            EXCEPTION
+                WHEN exclusion_violation THEN
+                    RAISE WARNING '% has overlapping BOOKED stays, no overlap constraint added: fix them and restart', part.relname;
+            END;
+        END IF;
+    END LOOP;
+END
+$$
+@@
+
+-- An exclusion constraint cannot span partitions, so this trigger keeps BOOKED stays of a room apart across
+-- the whole table. Each insert or update that places a BOOKED stay takes the room's advisory lock, held until
+-- commit, and then looks for an overlapping stay in every partition: writers of the same room are serialized
+-- and, under READ COMMITTED, the later one sees the earlier one's committed row. It raises exclusion_violation
+-- like the constraints, which BookingService reports as the room not being available.
+CREATE OR REPLACE FUNCTION bookings_check_overlap() RETURNS trigger AS $$
+BEGIN
+    IF NEW.status <> 0 OR NEW.room_id IS NULL THEN
+        RETURN NEW;
+    END IF;
+    -- Version bumps and status-only updates of an already placed stay cannot create an overlap
+    IF TG_OP = 'UPDATE' AND OLD.status = 0 AND OLD.room_id = NEW.room_id
+            AND OLD.check_in_date = NEW.check_in_date AND OLD.check_out_date = NEW.check_out_date THEN
+        RETURN NEW;
+    END IF;
+    PERFORM pg_advisory_xact_lock(NEW.room_id);
+    IF EXISTS (SELECT 1 FROM bookings b
+               WHERE b.room_id = NEW.room_id AND b.status = 0 AND b.id <> NEW.id
+                 AND b.check_in_date < NEW.check_out_date AND b.check_out_date > NEW.check_in_date) THEN
+        RAISE EXCEPTION 'room % already has a BOOKED stay overlapping % to %', NEW.room_id, NEW.check_in_date, NEW.check_out_date
+            USING ERRCODE = 'exclusion_violation';
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql
+@@
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgrelid = 'bookings'::regclass AND tgname = 'bookings_no_overlap') THEN
+        CREATE TRIGGER bookings_no_overlap BEFORE INSERT OR UPDATE ON bookings
+            FOR EACH ROW EXECUTE FUNCTION bookings_check_overlap();
+    END IF;
+END
+$$
+@@
+
+-- Ids come from pooled sequences (allocationSize 50) since the tables moved off IDENTITY.
+-- Move each sequence past the ids already handed out by the old identity columns; never moves it back.
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id), 0) FROM bookings) + 50))
+@@
+SELECT setval('rooms_seq', GREATEST((SELECT last_value FROM rooms_seq), (SELECT COALESCE(MAX(id), 0) FROM rooms) + 50))
+@@
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users) + 50))
+@@
+
+-- Rooms sold and revenue per stay night and room type, maintained by BookingRollups
+CREATE TABLE IF NOT EXISTS booking_daily_rollup (
+    stay_date  date           NOT NULL,
+    room_type  varchar(255)   NOT NULL,
+    rooms_sold bigint         NOT NULL DEFAULT 0,
+    revenue    numeric(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (stay_date, room_type)
+)
+@@
+
+-- Idempotency-Key claims and stored responses (IdempotencyService); status_code is null while the request runs
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key varchar(512) PRIMARY KEY,
+    fingerprint     char(64)     NOT NULL,
+    status_code     integer,
+    content_type    varchar(100),
+    body            text,
+    created_at      timestamptz  NOT NULL DEFAULT now(),
+    completed_at    timestamptz
+)
+@@
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at)
+@@
+-- claim_token identifies the request holding the key; booking_id is set in the same transaction as the booking write
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS claim_token char(36)
+@@
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS booking_id bigint
+@@
+
+-- BOOKED rooms per room type and stay night, maintained by RoomTypeInventory
+CREATE TABLE IF NOT EXISTS room_type_inventory (
+    room_type varchar(255) NOT NULL,
+    stay_date date         NOT NULL,
+    sold      integer      NOT NULL DEFAULT 0 CHECK (sold >= 0),
+    PRIMARY KEY (room_type, stay_date)
+)
+@@
+-- Filled once from the bookings when the table is new, RoomTypeInventory.reconcile() keeps it honest after that
+INSERT INTO room_type_inventory (room_type, stay_date, sold)
+SELECT b.room_type, CAST(night AS date), COUNT(*)
+FROM bookings b
+CROSS JOIN LATERAL generate_series(b.check_in_date, b.check_out_date - 1, INTERVAL '1 day') night
+WHERE b.status = 0 AND NOT EXISTS (SELECT 1 FROM room_type_inventory) -- BOOKED
+GROUP BY b.room_type, CAST(night AS date)
+@@
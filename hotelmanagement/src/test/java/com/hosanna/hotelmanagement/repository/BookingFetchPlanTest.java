@@ -0,0 +1,214 @@
+package com.hosanna.hotelmanagement.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hosanna.hotelmanagement.model.Booking;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.model.User;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements and loaded entities of each Booking fetch plan with Hibernate statistics,
+ * and checks the tables and columns each plan selects from the SQL Hibernate sends
+ */
+@DataJpaTest(properties = {
+        // The schema script is PostgreSQL only
+        "spring.sql.init.mode=never",
+        // application.properties is written for PostgreSQL, the test database is H2
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingFetchPlanTest {
+
+    private static final int BOOKINGS = 6;
+
+    // Every SQL statement prepared since the last clear, in order
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    // Serializes bookings the way the controllers do, after the transaction is gone (open-in-view is off)
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TestConfiguration
+    static class StatementCapture {
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql.toLowerCase());
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Statistics statistics;
+    private User guest;
+    private Room firstRoom;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        guest = entityManager.persist(new User("guest", "guest@example.com", "hash", "USER"));
+        List<Room> rooms = List.of(
+                entityManager.persist(new Room("101", "Single", 80.0, true)),
+                entityManager.persist(new Room("102", "Double", 120.0, true)),
+                entityManager.persist(new Room("201", "Suite", 300.0, true)));
+        firstRoom = rooms.get(0);
+        LocalDate start = LocalDate.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDate checkIn = start.plusDays(i * 3L);
+            entityManager.persist(new Booking(guest, rooms.get(i % rooms.size()), checkIn, checkIn.plusDays(2), BookingStatus.BOOKED));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void availabilityCheckLoadsNoEntities() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        bookingRepository.existsOverlappingBooking(firstRoom.getId(), checkIn, checkIn.plusDays(1), null);
+        bookingRepository.findActiveSnapshots();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(STATEMENTS).allSatisfy(BookingFetchPlanTest::readsBookingsOnly);
+    }
+
+    @Test
+    void userHistoryJoinsRoomsAndLoadsTheUserOnce() {
+        List<Booking> bookings = bookingRepository.findByUserId(guest.getId());
+
+        assertThat(bookings).hasSize(BOOKINGS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(loads(User.class)).isZero();
+        assertThat(bookings).allMatch(booking -> Hibernate.isInitialized(booking.getRoom()));
+        // Rooms joined, the user row (and its password hash) left out
+        assertThat(STATEMENTS.get(0)).contains("join rooms").doesNotContain("users").doesNotContain("password");
+
+        Hibernate.initialize(bookings.get(0).getUser());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(loads(User.class)).isEqualTo(1);
+        assertThat(bookings).allMatch(booking -> Hibernate.isInitialized(booking.getUser()));
+    }
+
+    @Test
+    void roomHistoryJoinsUsersOnly() {
+        List<Booking> bookings = bookingRepository.findByRoomId(firstRoom.getId());
+
+        assertThat(bookings).hasSize(BOOKINGS / 3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(loads(Room.class)).isZero();
+        assertThat(bookings).allMatch(booking -> Hibernate.isInitialized(booking.getUser()));
+        assertThat(STATEMENTS.get(0)).contains("join users").doesNotContain("rooms");
+    }
+
+    @Test
+    void adminListingIsASingleSelect() {
+        List<Booking> bookings = bookingRepository.findAll();
+
+        assertThat(bookings).hasSize(BOOKINGS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(bookings).allMatch(booking ->
+                Hibernate.isInitialized(booking.getUser()) && Hibernate.isInitialized(booking.getRoom()));
+        assertThat(STATEMENTS.get(0)).contains("join users").contains("join rooms");
+    }
+
+    @Test
+    void listEndpointSerializesWithoutLazyLoads() throws Exception {
+        // GET /api/bookings and its keyset pages
+        List<Booking> all = bookingRepository.findAll();
+        List<Booking> page = bookingRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(BOOKINGS + 1));
+        entityManager.clear();
+
+        String json = objectMapper.writeValueAsString(List.of(all, page));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(json).contains("\"roomNumber\"").contains("\"username\"").doesNotContain("password");
+    }
+
+    @Test
+    void detailEndpointSerializesWithoutLazyLoads() throws Exception {
+        // GET /api/bookings/{id}
+        Long id = bookingRepository.findByUserId(guest.getId()).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Booking booking = bookingRepository.findById(id).orElseThrow();
+        entityManager.clear();
+        String json = objectMapper.writeValueAsString(booking);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(json).contains("\"roomNumber\"").contains("\"username\"").doesNotContain("password");
+    }
+
+    @Test
+    void summariesReadOnlyTheBookingsTable() {
+        bookingRepository.findSummariesByUserId(guest.getId(), 0L, PageRequest.ofSize(BOOKINGS + 1));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(STATEMENTS).allSatisfy(BookingFetchPlanTest::readsBookingsOnly);
+    }
+
+    @Test
+    void upcomingAndActiveReadOnlyTheBookingsTable() {
+        LocalDate today = LocalDate.now();
+        assertThat(bookingRepository.findUpcoming(today)).hasSize(BOOKINGS);
+        assertThat(bookingRepository.findActive(today.plusDays(1))).hasSize(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(STATEMENTS).allSatisfy(BookingFetchPlanTest::readsBookingsOnly);
+    }
+
+    @Test
+    void conditionalGetReadsVersionsWithoutLoadingEntities() {
+        Long id = bookingRepository.findActiveSnapshots().get(0).id();
+        statistics.clear();
+
+        assertThat(bookingRepository.findVersionById(id)).hasValueSatisfying(row -> {
+            assertThat(row.userVersion()).isNotNull();
+            assertThat(row.roomVersion()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private static void readsBookingsOnly(String sql) {
+        assertThat(sql).contains("from bookings").doesNotContain("join").doesNotContain("users").doesNotContain("rooms");
+    }
+
+    private long loads(Class<?> entity) {
+        return statistics.getEntityStatistics(entity.getName()).getLoadCount();
+    }
+}
@@ -0,0 +1,122 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.event.RoomSnapshot;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.repository.BookingRepository;
+import com.hosanna.hotelmanagement.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Night bitset search of OccupancyEngine, mostly over a 128-night horizon (two words per room)
+ */
+class OccupancyEngineTest {
+
+    private static final long ROOM_1 = 1L;
+    private static final long ROOM_2 = 2L;
+    private static final int HORIZON_DAYS = 128;
+    private static final int DEFAULT_HORIZON_DAYS = 730;
+
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void checkOutDayIsFreeForTheNextArrival() {
+        OccupancyEngine engine = engine(stay(10L, ROOM_1, today.plusDays(3), today.plusDays(6)));
+
+        // Arriving the morning the stay leaves...
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(6), today.plusDays(8), null, null)))
+                .containsExactly(ROOM_1, ROOM_2);
+        // ...and the check-in day is free for a stay leaving that morning
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(1), today.plusDays(3), null, null)))
+                .containsExactly(ROOM_1, ROOM_2);
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(5), today.plusDays(7), null, null)))
+                .containsExactly(ROOM_2);
+    }
+
+    @Test
+    void stayAcrossTheYearBoundaryBlocksBothYears() {
+        // Next New Year is at most a year away, inside the default 730-night horizon
+        LocalDate newYear = today.withDayOfYear(1).plusYears(1);
+        OccupancyEngine engine = engine(DEFAULT_HORIZON_DAYS, stay(10L, ROOM_1, newYear.minusDays(1), newYear.plusDays(2)));
+
+        assertThat(ids(engine.findAvailableRooms(newYear.minusDays(1), newYear, null, null))).containsExactly(ROOM_2);
+        assertThat(ids(engine.findAvailableRooms(newYear, newYear.plusDays(1), null, null))).containsExactly(ROOM_2);
+        assertThat(ids(engine.findAvailableRooms(newYear.plusDays(2), newYear.plusDays(4), null, null)))
+                .containsExactly(ROOM_1, ROOM_2);
+    }
+
+    @Test
+    void stayAcrossAWordBoundaryBlocksNightsInBothWords() {
+        // Nights 60-69 from today span the end of the first 64-night word and the start of the second
+        OccupancyEngine engine = engine(stay(10L, ROOM_1, today.plusDays(60), today.plusDays(70)));
+
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(63), today.plusDays(64), null, null))).containsExactly(ROOM_2);
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(64), today.plusDays(65), null, null))).containsExactly(ROOM_2);
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(50), today.plusDays(60), null, null)))
+                .containsExactly(ROOM_1, ROOM_2);
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(70), today.plusDays(128), null, null)))
+                .containsExactly(ROOM_1, ROOM_2);
+    }
+
+    @Test
+    void staysPastTheHorizonAreAnsweredByTheIndex() {
+        OccupancyEngine engine = engine(stay(10L, ROOM_1, today.plusDays(126), today.plusDays(140)));
+
+        // Inside the horizon only the first two nights are in the bitset...
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(127), today.plusDays(128), null, null))).containsExactly(ROOM_2);
+        // ...the rest of the stay comes from the interval index
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(130), today.plusDays(132), null, null))).containsExactly(ROOM_2);
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(140), today.plusDays(141), null, null)))
+                .containsExactly(ROOM_1, ROOM_2);
+    }
+
+    @Test
+    void typeAndPriceFiltersApplyBeforeTheBitset() {
+        OccupancyEngine engine = engine();
+
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(1), today.plusDays(2), "suite", null))).containsExactly(ROOM_2);
+        assertThat(ids(engine.findAvailableRooms(today.plusDays(1), today.plusDays(2), null, 150.0))).containsExactly(ROOM_1);
+    }
+
+    private static OccupancyEngine engine(BookingSnapshot... stays) {
+        return engine(HORIZON_DAYS, stays);
+    }
+
+    private static OccupancyEngine engine(int horizonDays, BookingSnapshot... stays) {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findActiveSnapshots()).thenReturn(List.of(stays));
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(bookingRepository, true);
+        index.load();
+
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findAll()).thenReturn(List.of(
+                room(ROOM_1, "101", "Double", 120.0),
+                room(ROOM_2, "201", "Suite", 250.0)));
+        OccupancyEngine engine = new OccupancyEngine(roomRepository, index, horizonDays);
+        engine.load();
+        assertThat(engine.isReady()).isTrue();
+        return engine;
+    }
+
+    private static Room room(Long id, String number, String type, Double price) {
+        Room room = new Room(number, type, price, true);
+        room.setId(id);
+        return room;
+    }
+
+    private static BookingSnapshot stay(Long id, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        return new BookingSnapshot(id, roomId, "Double", checkIn, checkOut, BookingStatus.BOOKED);
+    }
+
+    private static List<Long> ids(List<RoomSnapshot> rooms) {
+        return rooms.stream().map(RoomSnapshot::id).toList();
+    }
+}
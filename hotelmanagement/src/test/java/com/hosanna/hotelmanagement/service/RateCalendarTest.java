@@ -0,0 +1,76 @@
+package com.hosanna.hotelmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Merging changed nights into the per-type cents array of RateCalendar.Rates
+ */
+class RateCalendarTest {
+
+    private static final LocalDate DAY_10 = LocalDate.of(2027, 1, 10);
+    private static final long FALLBACK = 4200;
+
+    // Nights 10..12 at 1.00, 2.00 and 3.00
+    private final RateCalendar.Rates current = RateCalendar.Rates.EMPTY.with(Map.of(
+            day(10), new BigDecimal("1.00"),
+            day(11), new BigDecimal("2.00"),
+            day(12), new BigDecimal("3.00")));
+
+    @Test
+    void emptyRatesFallBackEverywhere() {
+        assertThat(RateCalendar.Rates.EMPTY.centsAt(day(10).toEpochDay(), FALLBACK)).isEqualTo(FALLBACK);
+        assertThat(RateCalendar.Rates.EMPTY.with(Map.of())).isSameAs(RateCalendar.Rates.EMPTY);
+    }
+
+    @Test
+    void changesBeforeTheCurrentRangeExtendItBackwards() {
+        RateCalendar.Rates merged = current.with(Map.of(day(7), new BigDecimal("0.50")));
+
+        assertThat(cents(merged, 6, 13)).containsExactly(FALLBACK, 50, FALLBACK, FALLBACK, 100, 200, 300, FALLBACK);
+    }
+
+    @Test
+    void changesAfterTheCurrentRangeExtendItForwards() {
+        RateCalendar.Rates merged = current.with(Map.of(day(15), new BigDecimal("9.99")));
+
+        assertThat(cents(merged, 9, 16)).containsExactly(FALLBACK, 100, 200, 300, FALLBACK, FALLBACK, 999, FALLBACK);
+    }
+
+    @Test
+    void changesAroundTheCurrentRangeKeepTheNightsInside() {
+        RateCalendar.Rates merged = current.with(Map.of(
+                day(8), new BigDecimal("0.01"),
+                day(11), new BigDecimal("20.00"),
+                day(14), new BigDecimal("12345.67")));
+
+        assertThat(cents(merged, 7, 15)).containsExactly(FALLBACK, 1, FALLBACK, 100, 2000, 300, FALLBACK, 1234567, FALLBACK);
+        // The merge builds a new array, readers of the previous instance keep their rates
+        assertThat(cents(current, 10, 12)).containsExactly(100L, 200L, 300L);
+    }
+
+    @Test
+    void zeroIsARateNotAGap() {
+        RateCalendar.Rates merged = current.with(Map.of(day(11), new BigDecimal("0.00")));
+
+        assertThat(merged.centsAt(day(11).toEpochDay(), FALLBACK)).isZero();
+    }
+
+    private static LocalDate day(int dayOfMonth) {
+        return DAY_10.withDayOfMonth(dayOfMonth);
+    }
+
+    // Rates of the nights from..to of DAY_10's month (inclusive)
+    private static long[] cents(RateCalendar.Rates rates, int from, int to) {
+        long[] cents = new long[to - from + 1];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = rates.centsAt(day(from + i).toEpochDay(), FALLBACK);
+        }
+        return cents;
+    }
+}
@@ -0,0 +1,125 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.NightlyRates;
+import com.hosanna.hotelmanagement.dto.QuoteRequest;
+import com.hosanna.hotelmanagement.dto.QuoteResult;
+import com.hosanna.hotelmanagement.dto.RateUpdateRequest;
+import com.hosanna.hotelmanagement.event.RatesChangedEvent;
+import com.hosanna.hotelmanagement.model.Room;
+import com.hosanna.hotelmanagement.repository.RoomRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rate updates and quotes over a stubbed repository, with the committed rates applied to a real RateCalendar
+ */
+class RateServiceTest {
+
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2027, 3, 1);
+    private static final Long DOUBLE_ROOM = 1L;
+    private static final Long CHEAP_DOUBLE_ROOM = 2L;
+
+    private RateService rateService;
+
+    @BeforeEach
+    void setUp() {
+        RoomRateRepository rateRepository = mock(RoomRateRepository.class);
+        RateCalendar rateCalendar = new RateCalendar(rateRepository);
+
+        List<Room> rooms = List.of(
+                room(DOUBLE_ROOM, "Double", 100.0),
+                room(CHEAP_DOUBLE_ROOM, "Double", 33.33));
+        RoomCatalog roomCatalog = mock(RoomCatalog.class);
+        when(roomCatalog.getAllRooms()).thenReturn(rooms);
+        when(roomCatalog.getRoomsById()).thenReturn(Map.of(DOUBLE_ROOM, rooms.get(0), CHEAP_DOUBLE_ROOM, rooms.get(1)));
+
+        // No surrounding transaction, the calendar takes the new rates straight away
+        rateService = new RateService(rateRepository, rateCalendar, roomCatalog,
+                event -> rateCalendar.onRatesChanged((RatesChangedEvent) event),
+                20_000, 1096, 1000, 366, 64);
+    }
+
+    @Test
+    void totalsAreExactToTheCent() throws Exception {
+        rateService.updateRates(new RateUpdateRequest(List.of(
+                item(MONDAY, MONDAY.plusDays(2), "0.10", null))));
+
+        QuoteResult result = rateService.quote(new QuoteRequest(false, List.of(
+                // 3 x 0.10 is 0.30000000000000004 in doubles
+                new QuoteRequest.Item(DOUBLE_ROOM, null, MONDAY, MONDAY.plusDays(3)),
+                // No rates: 3 x the room's 33.33, averaged half-even
+                new QuoteRequest.Item(CHEAP_DOUBLE_ROOM, null, MONDAY.plusDays(7), MONDAY.plusDays(10)))));
+
+        assertThat(result.quoted()).isEqualTo(2);
+        assertThat(result.items().get(0).total()).isEqualTo(new BigDecimal("0.30"));
+        assertThat(result.items().get(0).averageNightly()).isEqualTo(new BigDecimal("0.10"));
+        assertThat(result.items().get(1).total()).isEqualTo(new BigDecimal("99.99"));
+        assertThat(result.items().get(1).averageNightly()).isEqualTo(new BigDecimal("33.33"));
+    }
+
+    @Test
+    void daysOfWeekLimitAnItemToThoseNights() throws Exception {
+        int written = rateService.updateRates(new RateUpdateRequest(List.of(
+                item(MONDAY, MONDAY.plusDays(6), "200.00", Set.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY)))));
+
+        QuoteResult result = rateService.quote(new QuoteRequest(true, List.of(
+                new QuoteRequest.Item(DOUBLE_ROOM, null, MONDAY, MONDAY.plusDays(7)))));
+
+        assertThat(written).isEqualTo(2);
+        // Five weekday nights at the room's 100.00, Friday and Saturday at 200.00
+        QuoteResult.Item quoted = result.items().get(0);
+        assertThat(quoted.total()).isEqualTo(new BigDecimal("900.00"));
+        assertThat(quoted.nightly()).extracting(NightlyRates.Night::rate).containsExactly(
+                new BigDecimal("100.00"), new BigDecimal("100.00"), new BigDecimal("100.00"), new BigDecimal("100.00"),
+                new BigDecimal("200.00"), new BigDecimal("200.00"), new BigDecimal("100.00"));
+    }
+
+    @Test
+    void laterItemsOverrideEarlierOnes() throws Exception {
+        int written = rateService.updateRates(new RateUpdateRequest(List.of(
+                item(MONDAY, MONDAY.plusDays(6), "150.00", null),
+                item(MONDAY.plusDays(2), MONDAY.plusDays(2), "175.00", null),
+                item(MONDAY.plusDays(6), MONDAY.plusDays(8), "120.00", null))));
+
+        NightlyRates rates = rateService.getRates("double", MONDAY, MONDAY.plusDays(9));
+
+        // Overlapping nights are counted once
+        assertThat(written).isEqualTo(9);
+        assertThat(rates.nights()).extracting(NightlyRates.Night::rate).containsExactly(
+                new BigDecimal("150.00"), new BigDecimal("150.00"), new BigDecimal("175.00"), new BigDecimal("150.00"),
+                new BigDecimal("150.00"), new BigDecimal("150.00"), new BigDecimal("120.00"), new BigDecimal("120.00"),
+                new BigDecimal("120.00"), null);
+    }
+
+    @Test
+    void roomTypeQuotesFallBackToTheLowestRoomPrice() throws Exception {
+        QuoteResult result = rateService.quote(new QuoteRequest(false, List.of(
+                new QuoteRequest.Item(null, "DOUBLE", MONDAY, MONDAY.plusDays(1)),
+                new QuoteRequest.Item(null, "Suite", MONDAY, MONDAY.plusDays(1)))));
+
+        assertThat(result.items().get(0).total()).isEqualTo(new BigDecimal("33.33"));
+        assertThat(result.items().get(1).error()).isEqualTo("No rooms of type Suite");
+    }
+
+    private static RateUpdateRequest.Item item(LocalDate from, LocalDate to, String rate, Set<DayOfWeek> daysOfWeek) {
+        return new RateUpdateRequest.Item("Double", from, to, new BigDecimal(rate), daysOfWeek);
+    }
+
+    private static Room room(Long id, String type, Double price) {
+        Room room = new Room("R" + id, type, price, true);
+        room.setId(id);
+        return room;
+    }
+}
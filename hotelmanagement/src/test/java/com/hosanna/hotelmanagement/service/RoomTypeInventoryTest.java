@@ -0,0 +1,141 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.dto.InventoryReconciliation;
+import com.hosanna.hotelmanagement.event.BookingChangedEvent;
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import com.hosanna.hotelmanagement.model.Room;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counter writes and reconciliation of RoomTypeInventory. The SQL is PostgreSQL only, so the database
+ * is a stubbed NamedParameterJdbcTemplate answering with the update counts PostgreSQL would return.
+ */
+class RoomTypeInventoryTest {
+
+    private static final LocalDate NIGHT_1 = LocalDate.now().plusDays(10);
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private RoomTypeInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(mock(JdbcTemplate.class));
+
+        RoomCatalog roomCatalog = mock(RoomCatalog.class);
+        when(roomCatalog.getAllRooms()).thenReturn(List.of(suite(1L, "201"), suite(2L, "202")));
+
+        // No surrounding transaction: every event is written in a transaction of its own
+        inventory = new RoomTypeInventory(jdbcTemplate, mock(PlatformTransactionManager.class), roomCatalog,
+                new SimpleMeterRegistry(), true, true);
+    }
+
+    @Test
+    void incrementPastCapacityIsSoldOut() {
+        // The first night still has a suite, the second does not (the capacity guard updates no row)
+        applyCounts(1, 0);
+
+        assertThatThrownBy(() -> inventory.onBookingChanged(new BookingChangedEvent(null, stay(BookingStatus.BOOKED))))
+                .isInstanceOf(RoomTypeSoldOutException.class)
+                .hasMessage("No Suite rooms left on " + NIGHT_1.plusDays(1));
+
+        // Both nights are guarded by the type's current room count
+        SqlParameterSource[] applied = applied();
+        assertThat(applied).hasSize(2);
+        assertThat(applied).allSatisfy(params -> {
+            assertThat(params.getValue("delta")).isEqualTo(1);
+            assertThat(params.getValue("capacity")).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void decrementOfAMissingCounterIsNotSoldOut() {
+        // Neither night has a counter row (before the last backfill or repair), nothing is updated
+        applyCounts(0, 0);
+
+        assertThatCode(() -> inventory.onBookingChanged(
+                new BookingChangedEvent(stay(BookingStatus.BOOKED), stay(BookingStatus.CANCELLED))))
+                .doesNotThrowAnyException();
+
+        assertThat(applied()).extracting(params -> params.getValue("delta")).containsExactly(-1, -1);
+    }
+
+    @Test
+    void reconcileRepairsDriftedCounters() {
+        List<InventoryReconciliation.Mismatch> drift = List.of(
+                new InventoryReconciliation.Mismatch("Suite", NIGHT_1, 2, 1),
+                new InventoryReconciliation.Mismatch("Suite", NIGHT_1.plusDays(1), 0, 1));
+        when(jdbcTemplate.query(argThat((String sql) -> sql != null && sql.contains("FULL JOIN counted")),
+                any(SqlParameterSource.class), any(RowMapper.class))).thenReturn(drift);
+
+        InventoryReconciliation result = inventory.reconcile(true);
+
+        assertThat(result.mismatchCount()).isEqualTo(2);
+        assertThat(result.repaired()).isTrue();
+        assertThat(result.mismatches()).isEqualTo(drift);
+
+        // Each drifted counter is overwritten with the count expected from the bookings
+        ArgumentCaptor<SqlParameterSource[]> repairs = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(argThat((String sql) -> sql != null && sql.contains("SET sold = EXCLUDED.sold")),
+                repairs.capture());
+        assertThat(repairs.getValue()).extracting(params -> params.getValue("stayDate"), params -> params.getValue("sold"))
+                .containsExactly(
+                        tuple(Date.valueOf(NIGHT_1), 1),
+                        tuple(Date.valueOf(NIGHT_1.plusDays(1)), 1));
+    }
+
+    @Test
+    void reconcileWithoutDriftRepairsNothing() {
+        InventoryReconciliation result = inventory.reconcile(true);
+
+        assertThat(result.mismatchCount()).isZero();
+        assertThat(result.repaired()).isFalse();
+    }
+
+    // Update counts of the guarded counter UPDATE, one per night in night order
+    private void applyCounts(int... counts) {
+        when(jdbcTemplate.batchUpdate(argThat((String sql) -> sql != null && sql.startsWith("UPDATE room_type_inventory")),
+                any(SqlParameterSource[].class))).thenReturn(counts);
+    }
+
+    private SqlParameterSource[] applied() {
+        ArgumentCaptor<SqlParameterSource[]> captor = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(argThat((String sql) -> sql != null && sql.startsWith("UPDATE room_type_inventory")),
+                captor.capture());
+        return captor.getValue();
+    }
+
+    // Two nights in suite 201
+    private static BookingSnapshot stay(BookingStatus status) {
+        return new BookingSnapshot(10L, 1L, "Suite", NIGHT_1, NIGHT_1.plusDays(2), status);
+    }
+
+    private static Room suite(Long id, String number) {
+        Room room = new Room(number, "Suite", 300.0, true);
+        room.setId(id);
+        return room;
+    }
+}
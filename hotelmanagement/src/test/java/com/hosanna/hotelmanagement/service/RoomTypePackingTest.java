@@ -0,0 +1,99 @@
+package com.hosanna.hotelmanagement.service;
+
+import com.hosanna.hotelmanagement.event.BookingSnapshot;
+import com.hosanna.hotelmanagement.model.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Packing of room-type stays around the stays already fixed on rooms of the type
+ */
+class RoomTypePackingTest {
+
+    private static final long SUITE_A = 1L;
+    private static final long SUITE_B = 2L;
+    private static final List<Long> SUITES = List.of(SUITE_A, SUITE_B);
+    private static final LocalDate NIGHT_1 = LocalDate.of(2026, 3, 1);
+
+    @Test
+    void typeStayCrossingTwoHalfBookedRoomsIsOversoldByCountersAlone() {
+        // Suite A sold for nights 1-2, suite B for nights 3-4, a room-type stay for nights 1-4
+        List<BookingSnapshot> stays = List.of(
+                stay(10L, SUITE_A, 1, 3),
+                stay(11L, SUITE_B, 3, 5),
+                stay(12L, null, 1, 5));
+
+        // Every night has one suite left, so the per-night counters let the stay through...
+        assertThat(soldPerNight(stays).values()).allMatch(sold -> sold <= SUITES.size());
+
+        // ...but neither suite is free for all four nights
+        RoomTypePacking.Result packing = RoomTypePacking.pack(SUITES, stays);
+        assertThat(packing.fits()).isFalse();
+        assertThat(packing.unplaced().id()).isEqualTo(12L);
+    }
+
+    @Test
+    void typeStayGoesToTheRoomThatIsFreeForTheWholeStay() {
+        List<BookingSnapshot> stays = List.of(
+                stay(10L, SUITE_A, 1, 3),
+                stay(12L, null, 1, 5));
+
+        RoomTypePacking.Result packing = RoomTypePacking.pack(SUITES, stays);
+
+        assertThat(packing.fits()).isTrue();
+        assertThat(packing.rooms()).containsEntry(12L, SUITE_B);
+    }
+
+    @Test
+    void typeStayFillsTheTightestGap() {
+        // Suite A frees up on night 3, suite B is free throughout: the stay arriving on night 3 takes A
+        // and keeps B open for longer stays
+        List<BookingSnapshot> stays = List.of(
+                stay(10L, SUITE_A, 1, 3),
+                stay(12L, null, 3, 5));
+
+        RoomTypePacking.Result packing = RoomTypePacking.pack(SUITES, stays);
+
+        assertThat(packing.fits()).isTrue();
+        assertThat(packing.rooms()).containsEntry(12L, SUITE_A);
+    }
+
+    @Test
+    void cancelledAndCheckedOutDaysDoNotBlock() {
+        List<BookingSnapshot> stays = List.of(
+                new BookingSnapshot(10L, SUITE_A, "Suite", night(1), night(5), BookingStatus.CANCELLED),
+                stay(11L, SUITE_B, 1, 3),
+                stay(12L, null, 1, 5),
+                // Arrives on suite B's check-out day
+                stay(13L, null, 3, 5));
+
+        RoomTypePacking.Result packing = RoomTypePacking.pack(SUITES, stays);
+
+        assertThat(packing.fits()).isTrue();
+        assertThat(packing.rooms()).containsEntry(12L, SUITE_A).containsEntry(13L, SUITE_B);
+    }
+
+    private static BookingSnapshot stay(Long id, Long roomId, int firstNight, int checkOutNight) {
+        return new BookingSnapshot(id, roomId, "Suite", night(firstNight), night(checkOutNight), BookingStatus.BOOKED);
+    }
+
+    private static LocalDate night(int number) {
+        return NIGHT_1.plusDays(number - 1);
+    }
+
+    private static Map<LocalDate, Integer> soldPerNight(List<BookingSnapshot> stays) {
+        Map<LocalDate, Integer> sold = new HashMap<>();
+        for (BookingSnapshot stay : stays) {
+            for (LocalDate night = stay.checkInDate(); night.isBefore(stay.checkOutDate()); night = night.plusDays(1)) {
+                sold.merge(night, 1, Integer::sum);
+            }
+        }
+        return sold;
+    }
+}